@@ -0,0 +1,122 @@
+package cl.milsabores.authservice.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom para strings, seguro para lecturas y escrituras concurrentes.
+ * Si {@link #puedeContener(String)} devuelve false, el valor nunca fue agregado;
+ * si devuelve true, puede ser un falso positivo (con probabilidad ~fpp).
+ */
+public final class BloomFilter {
+
+    private static final long SEMILLA_1 = 0xcbf29ce484222325L;
+    private static final long SEMILLA_2 = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+    private final long capacidad;
+    private final LongAdder insertados = new LongAdder();
+
+    private BloomFilter(long cantidadBits, int cantidadHashes, long capacidad) {
+        int palabras = (int) ((cantidadBits + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.cantidadBits = (long) palabras * 64;
+        this.cantidadHashes = cantidadHashes;
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Dimensiona el filtro para {@code capacidad} elementos con la tasa de falsos positivos indicada.
+     */
+    public static BloomFilter paraCapacidad(long capacidad, double fpp) {
+        long n = Math.max(1, capacidad);
+        double p = Math.min(Math.max(fpp, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, m), k, n);
+    }
+
+    // ============================
+    // OPERACIONES
+    // ============================
+    public void agregar(String valor) {
+        long h1 = hash(valor, SEMILLA_1);
+        long h2 = hash(valor, SEMILLA_2) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            marcar(posicion);
+        }
+        insertados.increment();
+    }
+
+    public boolean puedeContener(String valor) {
+        long h1 = hash(valor, SEMILLA_1);
+        long h2 = hash(valor, SEMILLA_2) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================
+    // ESTADÍSTICAS
+    // ============================
+    public long getCantidadBits() {
+        return cantidadBits;
+    }
+
+    public int getCantidadHashes() {
+        return cantidadHashes;
+    }
+
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    public long getInsertados() {
+        return insertados.sum();
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con los elementos insertados hasta ahora.
+     */
+    public double fppEstimada() {
+        double n = insertados.sum();
+        return Math.pow(1 - Math.exp(-cantidadHashes * n / cantidadBits), cantidadHashes);
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void marcar(long posicion) {
+        int palabra = (int) (posicion >>> 6);
+        long mascara = 1L << posicion;
+        long actual;
+        do {
+            actual = bits.get(palabra);
+            if ((actual & mascara) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres + mezcla final de MurmurHash3
+    private static long hash(String valor, long semilla) {
+        long h = semilla;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,77 @@
+package cl.milsabores.authservice.cache;
+
+import cl.milsabores.authservice.dto.UsuarioVistaDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache read-through (LRU + TTL) de la vista de usuario por id de Firebase.
+ * Las escrituras sobre el usuario la invalidan explícitamente.
+ */
+@Component
+public class CacheVistaUsuarios {
+
+    private static final String NOMBRE_CACHE = "usuarios-firebase";
+
+    private final ExpiringLruCache<String, UsuarioVistaDto> cache;
+    private final long ttlMs;
+
+    // Cambia en cada invalidación: evita guardar una lectura que quedó obsoleta mientras se cargaba
+    private final AtomicLong generacion = new AtomicLong();
+
+    public CacheVistaUsuarios(@Value("${auth.cache.firebase.max-entradas:10000}") int maxEntradas,
+                              @Value("${auth.cache.firebase.ttl-ms:300000}") long ttlMs,
+                              MeterRegistry meterRegistry) {
+        this.cache = new ExpiringLruCache<>(maxEntradas);
+        this.ttlMs = ttlMs;
+
+        FunctionCounter.builder("cache.gets", cache, ExpiringLruCache::hits)
+                .tag("cache", NOMBRE_CACHE)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, ExpiringLruCache::misses)
+                .tag("cache", NOMBRE_CACHE)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, ExpiringLruCache::evictions)
+                .tag("cache", NOMBRE_CACHE)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, ExpiringLruCache::size)
+                .tag("cache", NOMBRE_CACHE)
+                .register(meterRegistry);
+    }
+
+    public Optional<UsuarioVistaDto> obtener(String idFirebase,
+                                             Function<String, Optional<UsuarioVistaDto>> cargador) {
+        UsuarioVistaDto enCache = cache.get(idFirebase);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+
+        long generacionInicial = generacion.get();
+        Optional<UsuarioVistaDto> cargado = cargador.apply(idFirebase);
+        if (cargado.isPresent() && generacion.get() == generacionInicial) {
+            cache.put(idFirebase, cargado.get(), System.currentTimeMillis() + ttlMs);
+        }
+        return cargado;
+    }
+
+    public void invalidarPorIdFirebase(String idFirebase) {
+        generacion.incrementAndGet();
+        if (idFirebase != null) {
+            cache.invalidate(idFirebase);
+        }
+    }
+
+    public void invalidarPorRut(String rut) {
+        generacion.incrementAndGet();
+        cache.invalidateIf((idFirebase, vista) -> vista.rut().equals(rut));
+    }
+}
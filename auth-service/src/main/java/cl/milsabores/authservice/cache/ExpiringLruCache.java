@@ -0,0 +1,183 @@
+package cl.milsabores.authservice.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache en memoria acotada (LRU) con expiración por entrada.
+ * Se divide en segmentos independientes para que los hilos no compitan
+ * por un único lock en las lecturas concurrentes.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final Segmento<K, V>[] segmentos;
+    private final int mascara;
+    private final LongSupplier reloj;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public ExpiringLruCache(int maxEntradas) {
+        this(maxEntradas, 16, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ExpiringLruCache(int maxEntradas, int concurrencia, LongSupplier reloj) {
+        if (maxEntradas <= 0) {
+            throw new IllegalArgumentException("maxEntradas debe ser mayor que 0");
+        }
+        int cantidad = Integer.highestOneBit(Math.max(1, Math.min(concurrencia, maxEntradas)));
+        this.segmentos = new Segmento[cantidad];
+        this.mascara = cantidad - 1;
+        this.reloj = reloj;
+
+        int capacidadPorSegmento = Math.max(1, maxEntradas / cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            segmentos[i] = new Segmento<>(capacidadPorSegmento, desalojos);
+        }
+    }
+
+    // ============================
+    // OPERACIONES
+    // ============================
+
+    /**
+     * Devuelve el valor asociado o null si no existe o ya expiró.
+     */
+    public V get(K key) {
+        V valor = segmentoDe(key).get(key, reloj.getAsLong());
+        if (valor == null) {
+            fallos.increment();
+        } else {
+            aciertos.increment();
+        }
+        return valor;
+    }
+
+    /**
+     * Guarda el valor hasta el instante indicado (epoch millis).
+     */
+    public void put(K key, V value, long expiraEnMillis) {
+        if (expiraEnMillis <= reloj.getAsLong()) {
+            return;
+        }
+        segmentoDe(key).put(key, value, expiraEnMillis);
+    }
+
+    public void invalidate(K key) {
+        segmentoDe(key).remove(key);
+    }
+
+    /**
+     * Elimina todas las entradas que cumplan la condición.
+     * Recorre la cache completa: pensado para escrituras poco frecuentes.
+     */
+    public void invalidateIf(BiPredicate<K, V> condicion) {
+        for (Segmento<K, V> segmento : segmentos) {
+            segmento.removeIf(condicion);
+        }
+    }
+
+    public void clear() {
+        for (Segmento<K, V> segmento : segmentos) {
+            segmento.clear();
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            total += segmento.size();
+        }
+        return total;
+    }
+
+    // ============================
+    // ESTADÍSTICAS
+    // ============================
+    public long hits() {
+        return aciertos.sum();
+    }
+
+    public long misses() {
+        return fallos.sum();
+    }
+
+    public long evictions() {
+        return desalojos.sum();
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private Segmento<K, V> segmentoDe(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segmentos[h & mascara];
+    }
+
+    private record Entrada<V>(V valor, long expiraEn) {
+    }
+
+    private static final class Segmento<K, V> {
+
+        private final LinkedHashMap<K, Entrada<V>> mapa;
+
+        Segmento(int capacidad, LongAdder desalojos) {
+            // accessOrder = true -> el primer elemento es el menos usado recientemente
+            this.mapa = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                    if (size() > capacidad) {
+                        desalojos.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key, long ahora) {
+            Entrada<V> entrada = mapa.get(key);
+            if (entrada == null) {
+                return null;
+            }
+            if (entrada.expiraEn() <= ahora) {
+                mapa.remove(key);
+                return null;
+            }
+            return entrada.valor();
+        }
+
+        synchronized void put(K key, V value, long expiraEn) {
+            mapa.put(key, new Entrada<>(value, expiraEn));
+        }
+
+        synchronized void remove(K key) {
+            mapa.remove(key);
+        }
+
+        synchronized void removeIf(BiPredicate<K, V> condicion) {
+            Iterator<Map.Entry<K, Entrada<V>>> it = mapa.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entrada<V>> e = it.next();
+                if (condicion.test(e.getKey(), e.getValue().valor())) {
+                    it.remove();
+                }
+            }
+        }
+
+        synchronized void clear() {
+            mapa.clear();
+        }
+
+        synchronized int size() {
+            return mapa.size();
+        }
+    }
+}
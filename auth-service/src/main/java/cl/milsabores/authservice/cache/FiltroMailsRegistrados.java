@@ -0,0 +1,202 @@
+package cl.milsabores.authservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Índice probabilístico (filtro de Bloom) de los correos registrados.
+ * Se construye al iniciar desde la tabla USUARIO, se actualiza en cada registro y se
+ * reconstruye periódicamente para incorporar altas hechas por otras instancias o directo
+ * en la base; hasta entonces esas altas son falsos negativos.
+ * <p>
+ * El registro se salta la consulta por correo cuando con seguridad no existe: el índice
+ * único de USUARIO.MAIL sigue siendo el que decide, y si lo rechaza el filtro se reconstruye.
+ * La recuperación de contraseña descarta sin consultar solo mientras el filtro tiene menos
+ * de {@code frescura-max-ms} ({@link #seguroNoRegistrado}); el restablecimiento y el login
+ * siempre consultan la base.
+ * Mientras no está construido, responde siempre "puede estar registrado".
+ */
+@Component
+public class FiltroMailsRegistrados {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroMailsRegistrados.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final double fpp;
+    private final long capacidadMinima;
+    private final long frescuraMaxMs;
+
+    private volatile BloomFilter filtro;
+    // Inicio (epoch ms) de la lectura de USUARIO con la que se construyó "filtro"
+    private volatile long construidoEn;
+    // Filtro en construcción: los registros concurrentes también se anotan aquí
+    private volatile BloomFilter enConstruccion;
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    private final Timer tiempoReconstruccion;
+    private final Counter descartes;
+
+    public FiltroMailsRegistrados(DataSource dataSource,
+                                  @Value("${auth.filtro-mails.habilitado:true}") boolean habilitado,
+                                  @Value("${auth.filtro-mails.fpp:0.01}") double fpp,
+                                  @Value("${auth.filtro-mails.capacidad-minima:10000}") long capacidadMinima,
+                                  @Value("${auth.filtro-mails.frescura-max-ms:900000}") long frescuraMaxMs,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.habilitado = habilitado;
+        this.fpp = fpp;
+        this.capacidadMinima = capacidadMinima;
+        this.frescuraMaxMs = frescuraMaxMs;
+
+        this.tiempoReconstruccion = Timer.builder("mail.bloom.rebuild")
+                .description("Tiempo de reconstrucción del filtro de correos registrados")
+                .register(meterRegistry);
+        this.descartes = Counter.builder("mail.bloom.negatives")
+                .description("Búsquedas de correo resueltas sin consultar la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("mail.bloom.size.bits", this, f -> f.filtro != null ? f.filtro.getCantidadBits() : 0)
+                .register(meterRegistry);
+        Gauge.builder("mail.bloom.entries", this, f -> f.filtro != null ? f.filtro.getInsertados() : 0)
+                .register(meterRegistry);
+        Gauge.builder("mail.bloom.fpp", this, f -> f.filtro != null ? f.filtro.fppEstimada() : 1.0)
+                .description("Tasa estimada de falsos positivos")
+                .register(meterRegistry);
+        Gauge.builder("mail.bloom.age.seconds", this,
+                        f -> f.filtro != null ? (System.currentTimeMillis() - f.construidoEn) / 1000.0 : 0)
+                .description("Antigüedad del filtro desde su última reconstrucción")
+                .register(meterRegistry);
+    }
+
+    // ============================
+    // CONSULTA Y ALTA
+    // ============================
+
+    /**
+     * @return false solo si el correo con seguridad no está registrado
+     */
+    public boolean puedeEstarRegistrado(String mail) {
+        BloomFilter actual = filtro;
+        if (actual == null || mail == null) {
+            return true;
+        }
+        if (actual.puedeContener(mail)) {
+            return true;
+        }
+        descartes.increment();
+        return false;
+    }
+
+    /**
+     * Como {@link #puedeEstarRegistrado} negado, pero solo con un filtro construido hace menos
+     * de {@code frescura-max-ms}: uno más viejo (p.ej. tras reconstrucciones fallidas) no
+     * descarta nada y se pide reconstruirlo.
+     *
+     * @return true solo si el correo con seguridad no está registrado
+     */
+    public boolean seguroNoRegistrado(String mail) {
+        if (filtro == null || mail == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - construidoEn > frescuraMaxMs) {
+            reconstruirEnSegundoPlano();
+            return false;
+        }
+        return !puedeEstarRegistrado(mail);
+    }
+
+    /**
+     * La base tenía un correo que el filtro daba por no registrado: se reconstruye.
+     */
+    public void desactualizado() {
+        reconstruirEnSegundoPlano();
+    }
+
+    public void agregar(String mail) {
+        if (mail == null) {
+            return;
+        }
+        // Se lee primero el filtro en construcción: si ya terminó, "filtro" apunta al nuevo
+        BloomFilter nuevo = enConstruccion;
+        BloomFilter actual = filtro;
+        if (nuevo != null && nuevo != actual) {
+            nuevo.agregar(mail);
+        }
+        if (actual != null) {
+            actual.agregar(mail);
+            // Si superó la capacidad prevista, la tasa de falsos positivos empieza a subir
+            if (actual.getInsertados() > actual.getCapacidad()) {
+                reconstruirEnSegundoPlano();
+            }
+        }
+    }
+
+    // ============================
+    // CONSTRUCCIÓN
+    // ============================
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirAlIniciar() {
+        reconstruir();
+    }
+
+    @Scheduled(
+            initialDelayString = "${auth.filtro-mails.reconstruir-cada-ms:600000}",
+            fixedDelayString = "${auth.filtro-mails.reconstruir-cada-ms:600000}"
+    )
+    public void reconstruccionPeriodica() {
+        reconstruir();
+    }
+
+    public void reconstruir() {
+        if (!habilitado || !reconstruyendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            tiempoReconstruccion.record(() -> {
+                long inicio = System.currentTimeMillis();
+                Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM USUARIO", Long.class);
+                // Holgura x2 para absorber registros nuevos sin perder precisión
+                long capacidad = Math.max(capacidadMinima, (total != null ? total : 0) * 2);
+
+                BloomFilter nuevo = BloomFilter.paraCapacidad(capacidad, fpp);
+                enConstruccion = nuevo;
+                jdbcTemplate.query("SELECT MAIL FROM USUARIO WHERE MAIL IS NOT NULL",
+                        (RowCallbackHandler) rs -> nuevo.agregar(rs.getString(1)));
+
+                construidoEn = inicio;
+                filtro = nuevo;
+            });
+        } catch (RuntimeException e) {
+            // El filtro anterior (si lo hay) sigue respondiendo; la recuperación deja de usarlo
+            // al superar frescura-max-ms y el registro sigue protegido por el índice único
+            log.warn("No se pudo reconstruir el filtro de mails registrados", e);
+        } finally {
+            enConstruccion = null;
+            reconstruyendo.set(false);
+        }
+    }
+
+    private void reconstruirEnSegundoPlano() {
+        if (!habilitado || reconstruyendo.get()) {
+            return;
+        }
+        Thread hilo = new Thread(this::reconstruir, "filtro-mails-rebuild");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+}
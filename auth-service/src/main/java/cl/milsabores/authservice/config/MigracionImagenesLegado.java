@@ -0,0 +1,32 @@
+package cl.milsabores.authservice.config;
+
+import cl.milsabores.authservice.service.ImagenPerfilService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migración única de las fotos Base64 de USUARIO.IMAGEN a USUARIO_IMAGEN.
+ * Se activa con usuarios.imagen.migrar-legado=true.
+ */
+@Component
+@ConditionalOnProperty(name = "usuarios.imagen.migrar-legado", havingValue = "true")
+public class MigracionImagenesLegado implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionImagenesLegado.class);
+
+    private final ImagenPerfilService imagenPerfilService;
+
+    public MigracionImagenesLegado(ImagenPerfilService imagenPerfilService) {
+        this.imagenPerfilService = imagenPerfilService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migradas = imagenPerfilService.migrarImagenesLegado();
+        log.info("Imágenes migradas desde USUARIO.IMAGEN: {}", migradas);
+    }
+}
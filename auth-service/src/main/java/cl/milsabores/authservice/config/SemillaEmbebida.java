@@ -0,0 +1,109 @@
+package cl.milsabores.authservice.config;
+
+import cl.milsabores.authservice.model.Usuario;
+import cl.milsabores.authservice.repository.UsuarioBatchRepository;
+import cl.milsabores.authservice.repository.UsuarioRepository;
+import cl.milsabores.authservice.security.PasswordHasher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Siembra la base del perfil "embebido" con {@code embebido.semilla.usuarios} usuarios
+ * (clienteN@milsabores.test, RUT 10.000.000 + N) y un usuario de personal, admin@milsabores.test
+ * (RUT 10.000.000, rol administrador), para las escrituras del catálogo. Todos comparten la contraseña
+ * {@code embebido.semilla.password}: se hashea una sola vez con el costo configurado,
+ * así el login cuesta lo mismo que en producción sin pagar 100 mil BCrypt al iniciar.
+ * <p>
+ * Corre al crear el bean, antes de que el servidor acepte requests y antes de que se
+ * construya el filtro de correos. Si la tabla ya tiene usuarios no hace nada.
+ */
+@Component
+@Profile("embebido")
+public class SemillaEmbebida {
+
+    private static final Logger log = LoggerFactory.getLogger(SemillaEmbebida.class);
+
+    private static final String DOMINIO = "@milsabores.test";
+    private static final int RUT_BASE = 10_000_000;
+    private static final int FILAS_POR_LOTE = 1_000;
+    private static final int ROL_CLIENTE = 1;
+    private static final int ROL_ADMINISTRADOR = 2;
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioBatchRepository usuarioBatchRepository;
+    private final PasswordHasher passwordHasher;
+    private final int usuarios;
+    private final String password;
+
+    public SemillaEmbebida(UsuarioRepository usuarioRepository,
+                           UsuarioBatchRepository usuarioBatchRepository,
+                           PasswordHasher passwordHasher,
+                           @Value("${embebido.semilla.usuarios:100000}") int usuarios,
+                           @Value("${embebido.semilla.password:MilSabores2025}") String password) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioBatchRepository = usuarioBatchRepository;
+        this.passwordHasher = passwordHasher;
+        this.usuarios = usuarios;
+        this.password = password;
+    }
+
+    @PostConstruct
+    public void sembrar() {
+        if (usuarios <= 0 || usuarioRepository.count() > 0) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        String hash = passwordHasher.encode(password);
+        LocalDate hoy = LocalDate.now();
+
+        List<Usuario> lote = new ArrayList<>(FILAS_POR_LOTE);
+        lote.add(Usuario.builder()
+                .rut(RUT_BASE + "-" + digitoVerificador(RUT_BASE))
+                .nombre("Administrador")
+                .mail("admin" + DOMINIO)
+                .password(hash)
+                .idrol(ROL_ADMINISTRADOR)
+                .fechaNac(hoy.minusYears(30))
+                .build());
+        for (int n = 1; n <= usuarios; n++) {
+            int cuerpo = RUT_BASE + n;
+            lote.add(Usuario.builder()
+                    .rut(cuerpo + "-" + digitoVerificador(cuerpo))
+                    .nombre("Cliente " + n)
+                    .mail("cliente" + n + DOMINIO)
+                    .password(hash)
+                    .idrol(ROL_CLIENTE)
+                    .fechaNac(hoy.minusYears(18 + n % 60).minusDays(n % 365))
+                    .build());
+            if (lote.size() == FILAS_POR_LOTE) {
+                usuarioBatchRepository.insertarLote(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            usuarioBatchRepository.insertarLote(lote);
+        }
+        log.info("{} usuarios de prueba en {} ms (contraseña: embebido.semilla.password)",
+                usuarios, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // Módulo 11 del RUT chileno
+    static String digitoVerificador(int cuerpo) {
+        int suma = 0;
+        int factor = 2;
+        for (int resto = cuerpo; resto > 0; resto /= 10) {
+            suma += (resto % 10) * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+        }
+        int digito = 11 - suma % 11;
+        return digito == 11 ? "0" : digito == 10 ? "K" : String.valueOf(digito);
+    }
+}
@@ -5,15 +5,34 @@ import cl.milsabores.authservice.dto.ActualizarFotoRequest;
 import cl.milsabores.authservice.dto.CrearUsuarioRequest;
 import cl.milsabores.authservice.dto.LoginRequest;
 import cl.milsabores.authservice.dto.UsuarioResponseDto;
+import cl.milsabores.authservice.dto.UsuarioVistaDto;
 import cl.milsabores.authservice.dto.RecuperarPasswordRequest;
 import cl.milsabores.authservice.dto.ResetPasswordRequest;
-import cl.milsabores.authservice.model.Usuario;
+import cl.milsabores.authservice.dto.ResultadoImportacionDto;
+import cl.milsabores.authservice.exception.AccesoDenegadoException;
+import cl.milsabores.authservice.exception.ImagenDemasiadoGrandeException;
+import cl.milsabores.authservice.exception.LimiteExcedidoException;
+import cl.milsabores.authservice.exception.ServicioSaturadoException;
+import cl.milsabores.authservice.repository.UsuarioImagenRepository.ImagenMetadata;
+import cl.milsabores.authservice.security.LimitadorIntentos;
+import cl.milsabores.authservice.service.ImagenPerfilService;
 import cl.milsabores.authservice.service.UsuarioService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Optional;
 
 @RestController
@@ -24,6 +43,21 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private ImagenPerfilService imagenPerfilService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LimitadorIntentos limitadorIntentos;
+
+    @Value("${usuarios.imagen.max-bytes:2097152}")
+    private long maxBytesImagen;
+
+    @Value("${usuarios.imagen.cache-max-age-segundos:3600}")
+    private long cacheMaxAgeImagen;
+
     // ============================
     // REGISTRO
     // ============================
@@ -34,6 +68,39 @@ public class UsuarioController {
             return ResponseEntity.status(HttpStatus.CREATED).body(respuesta);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ServicioSaturadoException e) {
+            return servicioSaturado(e);
+        }
+    }
+
+    // ============================
+    // IMPORTACIÓN MASIVA
+    // ============================
+
+    /**
+     * Acepta un arreglo JSON o un stream NDJSON (un usuario por línea).
+     * Las filas se leen de a una, sin cargar el archivo completo en memoria.
+     */
+    @PostMapping(value = "/usuarios/importar", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<?> importarUsuarios(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            InputStream cuerpo
+    ) {
+        try {
+            usuarioService.validarPermisoImportacion(authorization);
+        } catch (AccesoDenegadoException e) {
+            HttpStatus estado = e.isSinCredenciales() ? HttpStatus.UNAUTHORIZED : HttpStatus.FORBIDDEN;
+            return ResponseEntity.status(estado).body(e.getMessage());
+        }
+
+        try (MappingIterator<CrearUsuarioRequest> filas =
+                     objectMapper.readerFor(CrearUsuarioRequest.class).readValues(cuerpo)) {
+            ResultadoImportacionDto resultado = usuarioService.importar(filas);
+            return ResponseEntity.ok(resultado);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("El cuerpo no es un JSON/NDJSON válido");
+        } catch (ServicioSaturadoException e) {
+            return servicioSaturado(e);
         }
     }
 
@@ -41,12 +108,18 @@ public class UsuarioController {
     // LOGIN
     // ============================
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest http) {
         try {
+            // Se corta antes de llegar a BCrypt o al pool de conexiones
+            limitadorIntentos.verificarLogin(http.getRemoteAddr(), request.mail());
             UsuarioResponseDto respuesta = usuarioService.login(request);
             return ResponseEntity.ok(respuesta);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        } catch (LimiteExcedidoException e) {
+            return limiteExcedido(e);
+        } catch (ServicioSaturadoException e) {
+            return servicioSaturado(e);
         }
     }
 
@@ -71,12 +144,17 @@ public class UsuarioController {
      * Flujo académico: no usamos token, solo el correo.
      */
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody ResetPasswordRequest request) {
+    public ResponseEntity<?> resetPassword(@RequestBody ResetPasswordRequest request, HttpServletRequest http) {
         try {
+            limitadorIntentos.verificarReset(http.getRemoteAddr(), request.mail());
             usuarioService.resetearContrasena(request.mail(), request.nuevaPassword());
             return ResponseEntity.ok("Contraseña actualizada correctamente.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (LimiteExcedidoException e) {
+            return limiteExcedido(e);
+        } catch (ServicioSaturadoException e) {
+            return servicioSaturado(e);
         }
     }
 
@@ -85,7 +163,7 @@ public class UsuarioController {
     // ============================
     @GetMapping("/usuarios/firebase/{idFirebase}")
     public ResponseEntity<?> buscarPorFirebase(@PathVariable String idFirebase) {
-        Optional<Usuario> usuario = usuarioService.buscarPorFirebase(idFirebase);
+        Optional<UsuarioVistaDto> usuario = usuarioService.buscarPorFirebase(idFirebase);
         return usuario
                 .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -108,18 +186,101 @@ public class UsuarioController {
     }
 
     // ============================
-    // ACTUALIZAR FOTO DE PERFIL (Base64)
+    // ACTUALIZAR FOTO DE PERFIL (binario)
+    // ============================
+    @PutMapping(
+            value = "/usuarios/{rut}/foto",
+            consumes = {"image/jpeg", "image/png", "image/webp", "image/gif", MediaType.APPLICATION_OCTET_STREAM_VALUE}
+    )
+    public ResponseEntity<?> subirFotoPerfil(
+            @PathVariable String rut,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream datos
+    ) {
+        // Rechazo temprano si el cliente declara un tamaño mayor al permitido
+        if (contentLength != null && contentLength > maxBytesImagen) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ImagenDemasiadoGrandeException(maxBytesImagen).getMessage());
+        }
+        try {
+            ImagenMetadata metadata = usuarioService.actualizarFotoPerfil(rut, datos, contentType);
+            return ResponseEntity.ok()
+                    .eTag(metadata.getEtag())
+                    .body("Foto de perfil actualizada correctamente.");
+        } catch (ImagenDemasiadoGrandeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ============================
+    // ACTUALIZAR FOTO DE PERFIL (Base64, compatibilidad)
     // ============================
-    @PutMapping("/usuarios/{rut}/foto")
+    @PutMapping(value = "/usuarios/{rut}/foto", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> actualizarFotoPerfil(
             @PathVariable String rut,
             @RequestBody ActualizarFotoRequest request
     ) {
         try {
-            usuarioService.actualizarFotoPerfil(rut, request.imagenBase64());
-            return ResponseEntity.ok("Foto de perfil actualizada correctamente.");
+            ImagenMetadata metadata = usuarioService.actualizarFotoPerfil(rut, request.imagenBase64());
+            return ResponseEntity.ok()
+                    .eTag(metadata.getEtag())
+                    .body("Foto de perfil actualizada correctamente.");
+        } catch (ImagenDemasiadoGrandeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // ============================
+    // OBTENER FOTO DE PERFIL
+    // ============================
+    @GetMapping("/usuarios/{rut}/foto")
+    public ResponseEntity<StreamingResponseBody> obtenerFotoPerfil(
+            @PathVariable String rut,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Optional<ImagenMetadata> metadata = imagenPerfilService.metadata(rut);
+        if (metadata.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ImagenMetadata imagen = metadata.get();
+        String etag = "\"" + imagen.getEtag() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeImagen)).cachePrivate();
+
+        // El cliente ya tiene esta versión: no se leen los bytes
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        StreamingResponseBody cuerpo = salida -> imagenPerfilService.escribir(rut, salida);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(imagen.getContentType()))
+                .contentLength(imagen.getTamano())
+                .body(cuerpo);
+    }
+
+    // ============================
+    // RESPUESTAS COMUNES
+    // ============================
+    private ResponseEntity<?> limiteExcedido(LimiteExcedidoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                .body(e.getMessage());
+    }
+
+    private ResponseEntity<?> servicioSaturado(ServicioSaturadoException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                .body(e.getMessage());
+    }
 }
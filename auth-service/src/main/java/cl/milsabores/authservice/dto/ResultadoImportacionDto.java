@@ -0,0 +1,29 @@
+package cl.milsabores.authservice.dto;
+
+import java.util.List;
+
+/**
+ * Reporte de una importación masiva de usuarios, con el resultado de cada fila.
+ */
+public record ResultadoImportacionDto(
+        int total,
+        int creados,
+        int rechazados,
+        List<Fila> filas
+) {
+
+    public static final String CREADO = "CREADO";
+    public static final String RECHAZADO = "RECHAZADO";
+
+    /**
+     * @param fila número de fila en el archivo (desde 1)
+     */
+    public record Fila(
+            int fila,
+            String rut,
+            String mail,
+            String estado,
+            String detalle
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package cl.milsabores.authservice.dto;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Vista liviana del usuario para la app móvil (sin hash de contraseña ni imagen).
+ * fotoEtag permite al cliente saber si debe volver a descargar la foto.
+ */
+public record UsuarioVistaDto(
+        String rut,
+        String nombre,
+        String mail,
+        Integer idrol,
+        String idfirebase,
+        LocalDate fechaNac,
+        Integer edad,
+        String fotoEtag
+) {
+
+    // Usado por la consulta JPQL (constructor expression)
+    public UsuarioVistaDto(String rut, String nombre, String mail, Integer idrol, String idfirebase,
+                           LocalDate fechaNac, String fotoEtag) {
+        this(rut, nombre, mail, idrol, idfirebase, fechaNac,
+                fechaNac != null ? Period.between(fechaNac, LocalDate.now()).getYears() : null,
+                fotoEtag);
+    }
+}
@@ -0,0 +1,19 @@
+package cl.milsabores.authservice.exception;
+
+/**
+ * Operación que requiere un token válido y/o un rol con permisos.
+ * El controlador responde 401 si no hay credenciales válidas y 403 si el rol no alcanza.
+ */
+public class AccesoDenegadoException extends RuntimeException {
+
+    private final boolean sinCredenciales;
+
+    public AccesoDenegadoException(String mensaje, boolean sinCredenciales) {
+        super(mensaje);
+        this.sinCredenciales = sinCredenciales;
+    }
+
+    public boolean isSinCredenciales() {
+        return sinCredenciales;
+    }
+}
@@ -0,0 +1,11 @@
+package cl.milsabores.authservice.exception;
+
+/**
+ * La imagen enviada supera el tamaño máximo permitido (413).
+ */
+public class ImagenDemasiadoGrandeException extends IllegalArgumentException {
+
+    public ImagenDemasiadoGrandeException(long maxBytes) {
+        super("La imagen supera el tamaño máximo permitido (" + maxBytes + " bytes)");
+    }
+}
@@ -0,0 +1,18 @@
+package cl.milsabores.authservice.exception;
+
+/**
+ * Demasiados intentos desde la misma IP o para el mismo correo (429).
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public LimiteExcedidoException(long reintentarEnSegundos) {
+        super("Demasiados intentos. Intenta nuevamente en " + reintentarEnSegundos + " segundos.");
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,20 @@
+package cl.milsabores.authservice.exception;
+
+/**
+ * Se lanza cuando un recurso interno (pool de hashing, base de datos, etc.)
+ * está saturado y la solicitud se rechaza de inmediato.
+ * El controlador la traduce a 503 con cabecera Retry-After.
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public ServicioSaturadoException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
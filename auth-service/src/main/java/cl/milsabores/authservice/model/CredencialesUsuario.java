@@ -0,0 +1,13 @@
+package cl.milsabores.authservice.model;
+
+/**
+ * Proyección de solo lectura con lo mínimo para autenticar.
+ * No es una entidad: Hibernate no la registra en el contexto de persistencia.
+ */
+public record CredencialesUsuario(
+        String rut,
+        String mail,
+        String password,
+        Integer idrol
+) {
+}
@@ -3,6 +3,8 @@ package cl.milsabores.authservice.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +14,12 @@ import java.time.LocalDate;
 import java.time.Period;
 
 @Entity
+@Table(indexes = {
+        // Login y validación de correo único
+        @Index(name = "UX_USUARIO_MAIL", columnList = "mail", unique = true),
+        // Búsqueda desde la app móvil (buscarPorFirebase)
+        @Index(name = "IX_USUARIO_IDFIREBASE", columnList = "idfirebase")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,12 +39,7 @@ public class Usuario {
     // Integración futura con Firebase (puede quedar null)
     private String idfirebase;
 
-    /**
-     * Imagen de perfil en formato Base64.
-     * Se almacena en la columna IMAGEN de Oracle.
-     */
-    @Column(name = "IMAGEN")
-    private String imagen;
+    // La imagen de perfil vive en USUARIO_IMAGEN (ver UsuarioImagen)
 
     // Nueva columna: Fecha de nacimiento
     @Column(name = "FECHANAC")
@@ -0,0 +1,48 @@
+package cl.milsabores.authservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Imagen de perfil del usuario, guardada como bytes en su propia tabla.
+ * Separada de Usuario para que login y búsquedas nunca lean la imagen.
+ */
+@Entity
+@Table(name = "USUARIO_IMAGEN")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UsuarioImagen {
+
+    // Mismo RUT del usuario dueño de la imagen
+    @Id
+    @Column(name = "RUT")
+    private String rut;
+
+    @Lob
+    @Column(name = "DATOS", nullable = false)
+    private byte[] datos;
+
+    @Column(name = "CONTENT_TYPE", nullable = false)
+    private String contentType;
+
+    @Column(name = "TAMANO", nullable = false)
+    private Long tamano;
+
+    // Hash SHA-256 (hex) del contenido, usado como ETag
+    @Column(name = "ETAG", nullable = false)
+    private String etag;
+
+    @Column(name = "ACTUALIZADO_EN")
+    private Instant actualizadoEn;
+}
@@ -0,0 +1,48 @@
+package cl.milsabores.authservice.repository;
+
+import cl.milsabores.authservice.model.Usuario;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserciones masivas de usuarios con JDBC batch.
+ * JPA haría un SELECT previo por cada save() porque el RUT es un id asignado;
+ * aquí se inserta directo porque la existencia ya se validó por lote.
+ */
+@Repository
+public class UsuarioBatchRepository {
+
+    private static final String INSERT_USUARIO =
+            "INSERT INTO USUARIO (RUT, NOMBRE, MAIL, PASSWORD, IDROL, IDFIREBASE, FECHANAC) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UsuarioBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertarLote(List<Usuario> usuarios) {
+        jdbcTemplate.batchUpdate(INSERT_USUARIO, usuarios, usuarios.size(), (ps, u) -> {
+            ps.setString(1, u.getRut());
+            ps.setString(2, u.getNombre());
+            ps.setString(3, u.getMail());
+            ps.setString(4, u.getPassword());
+            ps.setObject(5, u.getIdrol(), Types.INTEGER);
+            ps.setString(6, u.getIdfirebase());
+            if (u.getFechaNac() != null) {
+                ps.setDate(7, Date.valueOf(u.getFechaNac()));
+            } else {
+                ps.setNull(7, Types.DATE);
+            }
+        });
+    }
+
+    public void insertar(Usuario usuario) {
+        insertarLote(List.of(usuario));
+    }
+}
@@ -0,0 +1,20 @@
+package cl.milsabores.authservice.repository;
+
+import cl.milsabores.authservice.model.UsuarioImagen;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface UsuarioImagenRepository extends JpaRepository<UsuarioImagen, String> {
+
+    // Solo metadatos (sin los bytes), para ETag y cabeceras
+    Optional<ImagenMetadata> findMetadataByRut(String rut);
+
+    interface ImagenMetadata {
+        String getContentType();
+
+        Long getTamano();
+
+        String getEtag();
+    }
+}
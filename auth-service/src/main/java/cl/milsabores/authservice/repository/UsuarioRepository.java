@@ -1,18 +1,42 @@
 package cl.milsabores.authservice.repository;
 
+import cl.milsabores.authservice.dto.UsuarioVistaDto;
+import cl.milsabores.authservice.model.CredencialesUsuario;
 import cl.milsabores.authservice.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, String> {
 
-    // Buscar por idfirebase
-    Optional<Usuario> findByIdfirebase(String idfirebase);
+    // Vista liviana por idfirebase (sin contraseña, solo el ETag de la foto)
+    @Query("select new cl.milsabores.authservice.dto.UsuarioVistaDto(" +
+            "u.rut, u.nombre, u.mail, u.idrol, u.idfirebase, u.fechaNac, i.etag) " +
+            "from Usuario u left join UsuarioImagen i on i.rut = u.rut " +
+            "where u.idfirebase = :idfirebase")
+    Optional<UsuarioVistaDto> findVistaByIdfirebase(@Param("idfirebase") String idfirebase);
 
-    // Buscar por correo (login)
-    Optional<Usuario> findByMail(String mail);
+    // Importación masiva: correos y RUTs ya registrados del lote, en una sola consulta
+    @Query("select u.mail from Usuario u where u.mail in :mails")
+    List<String> findMailsRegistrados(@Param("mails") Collection<String> mails);
 
-    // Validar correos repetidos
-    boolean existsByMail(String mail);
+    @Query("select u.rut from Usuario u where u.rut in :ruts")
+    List<String> findRutsRegistrados(@Param("ruts") Collection<String> ruts);
+
+    // Login / recuperación: solo rut, mail y hash (sin entidad administrada)
+    @Query("select new cl.milsabores.authservice.model.CredencialesUsuario(u.rut, u.mail, u.password, u.idrol) " +
+            "from Usuario u where u.mail = :mail")
+    Optional<CredencialesUsuario> findCredencialesByMail(@Param("mail") String mail);
+
+    // Cambio de contraseña en un solo UPDATE, sin cargar la entidad
+    @Modifying
+    @Transactional
+    @Query("update Usuario u set u.password = :password where u.rut = :rut")
+    int actualizarPassword(@Param("rut") String rut, @Param("password") String password);
 }
@@ -1,31 +1,74 @@
 package cl.milsabores.authservice.security;
 
+import cl.milsabores.authservice.cache.ExpiringLruCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
-    // Debe tener buena longitud para HS256
-    private static final String SECRET_KEY =
-            "mil-sabores-super-secreto-para-jwt-2025-con-bastantes-caracteres";
-
     // 24 horas
     private static final long EXPIRATION_MS = 1000 * 60 * 60 * 24;
 
+    // Llave y parser se construyen una sola vez (ambos son thread-safe)
+    private final Key signKey;
+    private final JwtParser parser;
+
+    // Tokens ya verificados: evita repetir la verificación HMAC en cada request
+    private final ExpiringLruCache<String, TokenClaims> tokensVerificados;
+
+    /**
+     * @param secreto clave HS256 (jwt.secret, al menos 32 bytes); product-service
+     *                verifica los tokens con la misma clave
+     */
+    public JwtUtil(@Value("${jwt.secret}") String secreto,
+                   @Value("${jwt.cache.max-entries:10000}") int maxEntradasCache,
+                   MeterRegistry meterRegistry) {
+        this.signKey = Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+        this.tokensVerificados = new ExpiringLruCache<>(maxEntradasCache);
+
+        FunctionCounter.builder("cache.gets", tokensVerificados, ExpiringLruCache::hits)
+                .tag("cache", "jwt")
+                .tag("result", "hit")
+                .description("Tokens JWT resueltos desde la cache de verificados")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", tokensVerificados, ExpiringLruCache::misses)
+                .tag("cache", "jwt")
+                .tag("result", "miss")
+                .description("Tokens JWT que requirieron verificar la firma")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", tokensVerificados, ExpiringLruCache::size)
+                .tag("cache", "jwt")
+                .register(meterRegistry);
+    }
+
     // =====================================
     // GENERACIÓN
     // =====================================
-    public String generateToken(String rut, String email) {
-        Map<String, Object> claims = Map.of("email", email);
+    /**
+     * @param rol idrol del usuario; product-service exige un rol distinto a cliente para
+     *            escribir en el catálogo. Null deja el token sin el claim "rol"
+     */
+    public String generateToken(String rut, String email, Integer rol) {
+        Map<String, Object> claims = rol != null
+                ? Map.of("email", email, "rol", rol)
+                : Map.of("email", email);
 
         Date ahora = new Date();
         Date expiracion = new Date(ahora.getTime() + EXPIRATION_MS);
@@ -35,46 +78,73 @@ public class JwtUtil {
                 .setSubject(rut) // el RUT será el "subject"
                 .setIssuedAt(ahora)
                 .setExpiration(expiracion)
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // =====================================
     // VALIDACIÓN
     // =====================================
+
+    /**
+     * Verifica el token una sola vez (firma + expiración) y devuelve sus claims.
+     * Los tokens válidos quedan en cache hasta su expiración.
+     *
+     * @return claims del token, o vacío si es inválido o expiró
+     */
+    public Optional<TokenClaims> validar(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(verificar(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     public boolean isTokenValid(String token, String rut) {
-        String rutToken = getRut(token);
-        return rutToken != null && rutToken.equals(rut) && !isTokenExpired(token);
+        return validar(token)
+                .map(claims -> claims.rut() != null && claims.rut().equals(rut))
+                .orElse(false);
     }
 
     public String getRut(String token) {
-        return getAllClaims(token).getSubject();
+        return verificar(token).rut();
     }
 
     public String getEmail(String token) {
-        return getAllClaims(token).get("email", String.class);
+        return verificar(token).email();
+    }
+
+    public long getCacheHits() {
+        return tokensVerificados.hits();
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = getAllClaims(token).getExpiration();
-        return expiration.before(new Date());
+    public long getCacheMisses() {
+        return tokensVerificados.misses();
     }
 
     // =====================================
     // INTERNOS
     // =====================================
-    private Claims getAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(
-                java.util.Base64.getEncoder().encodeToString(SECRET_KEY.getBytes())
-        );
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Lanza JwtException si la firma no es válida o el token expiró.
+     */
+    private TokenClaims verificar(String token) {
+        TokenClaims enCache = tokensVerificados.get(token);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        TokenClaims verificado = TokenClaims.desde(claims);
+
+        // Sin expiración no se guarda: la cache no debe extender su validez
+        if (verificado.expiraEn() != null) {
+            tokensVerificados.put(token, verificado, verificado.expiraEn().toEpochMilli());
+        }
+        return verificado;
     }
 }
@@ -0,0 +1,102 @@
+package cl.milsabores.authservice.security;
+
+import cl.milsabores.authservice.exception.LimiteExcedidoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límites de intentos por IP y por correo para login y reseteo de contraseña.
+ * Se aplica en el controlador antes de tocar BCrypt o la base de datos.
+ */
+@Component
+public class LimitadorIntentos {
+
+    private final boolean habilitado;
+    private final Map<String, TokenBucketLimiter> limitadores;
+    private final Map<String, Counter> rechazos;
+
+    public LimitadorIntentos(
+            @Value("${auth.rate-limit.habilitado:true}") boolean habilitado,
+            @Value("${auth.rate-limit.max-entradas:100000}") int maxEntradas,
+            @Value("${auth.rate-limit.inactividad-ms:600000}") long inactividadMs,
+            @Value("${auth.rate-limit.login.ip.capacidad:30}") long loginIpCapacidad,
+            @Value("${auth.rate-limit.login.ip.recarga-por-minuto:30}") long loginIpRecarga,
+            @Value("${auth.rate-limit.login.mail.capacidad:5}") long loginMailCapacidad,
+            @Value("${auth.rate-limit.login.mail.recarga-por-minuto:5}") long loginMailRecarga,
+            @Value("${auth.rate-limit.reset.ip.capacidad:10}") long resetIpCapacidad,
+            @Value("${auth.rate-limit.reset.ip.recarga-por-minuto:10}") long resetIpRecarga,
+            @Value("${auth.rate-limit.reset.mail.capacidad:3}") long resetMailCapacidad,
+            @Value("${auth.rate-limit.reset.mail.recarga-por-minuto:3}") long resetMailRecarga,
+            MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.limitadores = Map.of(
+                "login-ip", new TokenBucketLimiter(loginIpCapacidad, loginIpRecarga, maxEntradas, inactividadMs),
+                "login-mail", new TokenBucketLimiter(loginMailCapacidad, loginMailRecarga, maxEntradas, inactividadMs),
+                "reset-ip", new TokenBucketLimiter(resetIpCapacidad, resetIpRecarga, maxEntradas, inactividadMs),
+                "reset-mail", new TokenBucketLimiter(resetMailCapacidad, resetMailRecarga, maxEntradas, inactividadMs)
+        );
+
+        this.rechazos = new HashMap<>();
+        limitadores.forEach((nombre, limitador) -> {
+            rechazos.put(nombre, Counter.builder("auth.ratelimit.rejected")
+                    .tag("limit", nombre)
+                    .description("Solicitudes rechazadas con 429")
+                    .register(meterRegistry));
+            Gauge.builder("auth.ratelimit.entries", limitador, TokenBucketLimiter::size)
+                    .tag("limit", nombre)
+                    .register(meterRegistry);
+            FunctionCounter.builder("auth.ratelimit.overflow", limitador, TokenBucketLimiter::desbordes)
+                    .tag("limit", nombre)
+                    .description("Claves nuevas sin bucket propio por tener la tabla llena")
+                    .register(meterRegistry);
+        });
+    }
+
+    // ============================
+    // VERIFICACIONES
+    // ============================
+    public void verificarLogin(String ip, String mail) {
+        verificar("login-ip", ip);
+        verificar("login-mail", normalizarMail(mail));
+    }
+
+    public void verificarReset(String ip, String mail) {
+        verificar("reset-ip", ip);
+        verificar("reset-mail", normalizarMail(mail));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.barrido-ms:60000}")
+    public void eliminarInactivos() {
+        limitadores.values().forEach(TokenBucketLimiter::eliminarInactivos);
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void verificar(String limite, String clave) {
+        if (!habilitado || clave == null || clave.isEmpty()) {
+            return;
+        }
+        long esperaNanos = limitadores.get(limite).intentarConsumir(clave);
+        if (esperaNanos > 0) {
+            rechazos.get(limite).increment();
+            long segundos = Math.max(1, (long) Math.ceil(esperaNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+            throw new LimiteExcedidoException(segundos);
+        }
+    }
+
+    // Variaciones de mayúsculas/espacios no deben dar intentos extra
+    private static String normalizarMail(String mail) {
+        return mail == null ? null : mail.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,205 @@
+package cl.milsabores.authservice.security;
+
+import cl.milsabores.authservice.exception.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta BCrypt en un pool dedicado y acotado, fuera de los hilos de Tomcat.
+ * Si el pool y su cola están llenos la solicitud se rechaza de inmediato
+ * (ServicioSaturadoException -> 503) en vez de acumular hilos bloqueados.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String MENSAJE_SATURADO =
+            "El servicio está atendiendo demasiadas solicitudes. Intenta nuevamente en unos segundos.";
+
+    private final BCryptPasswordEncoder encoder;
+    private final int costo;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+
+    private final Timer latenciaEncode;
+    private final Timer latenciaMatches;
+    private final Counter rechazos;
+
+    public PasswordHasher(@Value("${auth.bcrypt.costo:10}") int costo,
+                          @Value("${auth.bcrypt.hilos:0}") int hilos,
+                          @Value("${auth.bcrypt.cola-max:50}") int colaMax,
+                          @Value("${auth.bcrypt.espera-max-ms:5000}") long esperaMaximaMs,
+                          MeterRegistry meterRegistry) {
+        this.costo = costo;
+        this.encoder = new BCryptPasswordEncoder(costo);
+        this.esperaMaximaMs = esperaMaximaMs;
+
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                tamano, tamano,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(colaMax),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.latenciaEncode = Timer.builder("bcrypt.hash")
+                .tag("operation", "encode")
+                .description("Tiempo de cómputo de BCrypt")
+                .register(meterRegistry);
+        this.latenciaMatches = Timer.builder("bcrypt.hash")
+                .tag("operation", "matches")
+                .description("Tiempo de cómputo de BCrypt")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("bcrypt.rejected")
+                .description("Solicitudes rechazadas por pool de BCrypt saturado")
+                .register(meterRegistry);
+        Gauge.builder("bcrypt.queue.size", executor, e -> e.getQueue().size())
+                .description("Tareas de BCrypt esperando un hilo")
+                .register(meterRegistry);
+        Gauge.builder("bcrypt.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    // ============================
+    // OPERACIONES
+    // ============================
+    public String encode(String rawPassword) {
+        return ejecutar(() -> latenciaEncode.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String hash) {
+        Boolean resultado = ejecutar(() -> latenciaMatches.record(() -> encoder.matches(rawPassword, hash)));
+        return Boolean.TRUE.equals(resultado);
+    }
+
+    /**
+     * Genera los hashes de un lote repartiéndolo en {@code paralelismo} tareas del pool.
+     * Pensado para importaciones: si el pool está lleno, la parte rechazada se procesa
+     * en el hilo actual en vez de fallar, y no se aplica la espera máxima.
+     *
+     * @return hashes en el mismo orden de entrada
+     */
+    public List<String> encodeLote(List<String> rawPasswords, int paralelismo) {
+        int total = rawPasswords.size();
+        String[] hashes = new String[total];
+        int partes = Math.max(1, Math.min(paralelismo, total));
+
+        List<Future<?>> futuros = new ArrayList<>(partes);
+        for (int p = 0; p < partes; p++) {
+            int desde = (int) ((long) p * total / partes);
+            int hasta = (int) ((long) (p + 1) * total / partes);
+            Runnable tarea = () -> {
+                for (int i = desde; i < hasta; i++) {
+                    String raw = rawPasswords.get(i);
+                    hashes[i] = latenciaEncode.record(() -> encoder.encode(raw));
+                }
+            };
+            try {
+                futuros.add(executor.submit(tarea));
+            } catch (RejectedExecutionException e) {
+                tarea.run();
+            }
+        }
+
+        for (Future<?> futuro : futuros) {
+            try {
+                futuro.get();
+            } catch (InterruptedException e) {
+                futuros.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IllegalStateException(causa);
+            }
+        }
+        return Arrays.asList(hashes);
+    }
+
+    /**
+     * Indica si el hash guardado usa un costo distinto al configurado
+     * y por lo tanto conviene volver a generarlo tras un login exitoso.
+     */
+    public boolean requiereRehash(String hash) {
+        // Formato BCrypt: $2a$10$<salt+hash>
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != costo;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public int getCosto() {
+        return costo;
+    }
+
+    public int getHilos() {
+        return executor.getMaximumPoolSize();
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private <T> T ejecutar(Callable<T> tarea) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+        }
+
+        try {
+            return futuro.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rechazos.increment();
+            throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException(MENSAJE_SATURADO, 1);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdownNow();
+    }
+}
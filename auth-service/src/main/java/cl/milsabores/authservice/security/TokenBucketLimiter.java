@@ -0,0 +1,134 @@
+package cl.milsabores.authservice.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador token-bucket por clave (IP, correo, ...).
+ * Cada clave tiene su propio bucket con lock propio, así que claves distintas
+ * nunca compiten entre sí. La cantidad de buckets está acotada: los inactivos
+ * se eliminan y, si aun así no hay espacio, las claves nuevas quedan sin límite
+ * propio (ver {@link #intentarConsumir(String)}) en vez de crecer sin límite.
+ */
+public class TokenBucketLimiter {
+
+    // Con la tabla llena, como máximo un barrido por segundo desde el camino de la request
+    private static final long INTERVALO_BARRIDO_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long capacidad;
+    private final double tokensPorNano;
+    private final int maxEntradas;
+    private final long inactividadNanos;
+    private final LongSupplier relojNanos;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong ultimoBarrido;
+    private final AtomicLong desbordes = new AtomicLong();
+
+    public TokenBucketLimiter(long capacidad, long recargaPorMinuto, int maxEntradas, long inactividadMs) {
+        this(capacidad, recargaPorMinuto, maxEntradas, inactividadMs, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(long capacidad, long recargaPorMinuto, int maxEntradas, long inactividadMs,
+                              LongSupplier relojNanos) {
+        if (capacidad <= 0 || recargaPorMinuto <= 0) {
+            throw new IllegalArgumentException("capacidad y recarga deben ser mayores que 0");
+        }
+        this.capacidad = capacidad;
+        this.tokensPorNano = recargaPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxEntradas = maxEntradas;
+        this.inactividadNanos = TimeUnit.MILLISECONDS.toNanos(inactividadMs);
+        this.relojNanos = relojNanos;
+        this.ultimoBarrido = new AtomicLong(relojNanos.getAsLong());
+    }
+
+    /**
+     * Intenta consumir un token de la clave.
+     * <p>
+     * Con la tabla llena de buckets activos, una clave nueva se deja pasar sin registrarla:
+     * un bucket compartido entre todas las claves nuevas permitiría que quien llena la tabla
+     * (p.ej. con miles de correos distintos) bloquee a todos los demás. Esas claves quedan
+     * acotadas solo por los otros límites de la solicitud (el de la IP).
+     *
+     * @return 0 si se permite; si no, nanosegundos hasta que haya un token disponible
+     */
+    public long intentarConsumir(String clave) {
+        long ahora = relojNanos.getAsLong();
+        Bucket bucket = buckets.get(clave);
+        if (bucket == null) {
+            long previo = ultimoBarrido.get();
+            if (buckets.size() >= maxEntradas && ahora - previo >= INTERVALO_BARRIDO_NANOS
+                    && ultimoBarrido.compareAndSet(previo, ahora)) {
+                eliminarInactivos();
+            }
+            if (buckets.size() >= maxEntradas) {
+                desbordes.incrementAndGet();
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(clave, k -> new Bucket(capacidad, ahora));
+        }
+        return bucket.consumir(ahora, capacidad, tokensPorNano);
+    }
+
+    /**
+     * Elimina los buckets sin uso reciente que ya se recargaron por completo:
+     * equivalen a uno nuevo, así que borrarlos no cambia el comportamiento.
+     */
+    public void eliminarInactivos() {
+        long ahora = relojNanos.getAsLong();
+        for (Map.Entry<String, Bucket> entrada : buckets.entrySet()) {
+            Bucket bucket = entrada.getValue();
+            if (bucket.inactivo(ahora, inactividadNanos, capacidad, tokensPorNano)) {
+                buckets.remove(entrada.getKey(), bucket);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // Claves nuevas que no se registraron por tener la tabla llena
+    public long desbordes() {
+        return desbordes.get();
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long ultimaRecarga;
+
+        Bucket(long capacidad, long ahora) {
+            this.tokens = capacidad;
+            this.ultimaRecarga = ahora;
+        }
+
+        synchronized long consumir(long ahora, long capacidad, double tokensPorNano) {
+            recargar(ahora, capacidad, tokensPorNano);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPorNano);
+        }
+
+        synchronized boolean inactivo(long ahora, long inactividadNanos, long capacidad, double tokensPorNano) {
+            if (ahora - ultimaRecarga < inactividadNanos) {
+                return false;
+            }
+            recargar(ahora, capacidad, tokensPorNano);
+            return tokens >= capacidad;
+        }
+
+        private void recargar(long ahora, long capacidad, double tokensPorNano) {
+            long transcurrido = ahora - ultimaRecarga;
+            if (transcurrido > 0) {
+                tokens = Math.min(capacidad, tokens + transcurrido * tokensPorNano);
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package cl.milsabores.authservice.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Claims tipados de un token JWT ya verificado (firma y expiración).
+ */
+public record TokenClaims(
+        String rut,
+        String email,
+        Integer rol,
+        Instant emitidoEn,
+        Instant expiraEn
+) {
+
+    static TokenClaims desde(Claims claims) {
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get("email", String.class),
+                claims.get("rol", Integer.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+}
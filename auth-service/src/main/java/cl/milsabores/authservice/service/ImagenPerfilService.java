@@ -0,0 +1,258 @@
+package cl.milsabores.authservice.service;
+
+import cl.milsabores.authservice.exception.ImagenDemasiadoGrandeException;
+import cl.milsabores.authservice.repository.UsuarioImagenRepository;
+import cl.milsabores.authservice.repository.UsuarioImagenRepository.ImagenMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Almacenamiento de imágenes de perfil como bytes en la tabla USUARIO_IMAGEN.
+ * La subida se lee por partes con límite de tamaño y la descarga se copia
+ * directo desde el BLOB a la respuesta, sin pasar por Base64.
+ */
+@Service
+public class ImagenPerfilService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagenPerfilService.class);
+
+    private static final List<String> TIPOS_PERMITIDOS =
+            List.of("image/jpeg", "image/png", "image/webp", "image/gif");
+
+    private static final String ACTUALIZAR_IMAGEN = "UPDATE USUARIO_IMAGEN SET DATOS = ?, CONTENT_TYPE = ?, TAMANO = ?, "
+            + "ETAG = ?, ACTUALIZADO_EN = ? WHERE RUT = ?";
+    private static final String INSERTAR_IMAGEN = "INSERT INTO USUARIO_IMAGEN "
+            + "(RUT, DATOS, CONTENT_TYPE, TAMANO, ETAG, ACTUALIZADO_EN) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final UsuarioImagenRepository imagenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxBytes;
+
+    public ImagenPerfilService(UsuarioImagenRepository imagenRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${usuarios.imagen.max-bytes:2097152}") long maxBytes) {
+        this.imagenRepository = imagenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBytes = maxBytes;
+    }
+
+    // ============================
+    // ESCRITURA
+    // ============================
+
+    /**
+     * Guarda la imagen leyendo el stream hasta el límite configurado.
+     *
+     * @param contentTypeDeclarado Content-Type enviado por el cliente (puede ser null)
+     * @return metadatos de la imagen guardada
+     */
+    public ImagenMetadata guardar(String rut, InputStream datos, String contentTypeDeclarado) {
+        byte[] bytes = leerConLimite(datos);
+        return guardarBytes(rut, bytes, contentTypeDeclarado);
+    }
+
+    /**
+     * Compatibilidad con clientes que aún envían la imagen en Base64
+     * (con o sin prefijo "data:image/...;base64,").
+     */
+    public ImagenMetadata guardarBase64(String rut, String imagenBase64) {
+        String contenido = imagenBase64.trim();
+        String contentType = null;
+        if (contenido.startsWith("data:")) {
+            int coma = contenido.indexOf(',');
+            int puntoComa = contenido.indexOf(';');
+            if (coma < 0) {
+                throw new IllegalArgumentException("Imagen Base64 inválida");
+            }
+            if (puntoComa > 5 && puntoComa < coma) {
+                contentType = contenido.substring(5, puntoComa);
+            }
+            contenido = contenido.substring(coma + 1);
+        }
+
+        // Base64 ocupa ~4/3 del tamaño real: validamos antes de decodificar
+        if ((long) contenido.length() * 3 / 4 > maxBytes) {
+            throw new ImagenDemasiadoGrandeException(maxBytes);
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(contenido);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Imagen Base64 inválida");
+        }
+        return guardarBytes(rut, bytes, contentType);
+    }
+
+    // ============================
+    // LECTURA
+    // ============================
+    public Optional<ImagenMetadata> metadata(String rut) {
+        return imagenRepository.findMetadataByRut(rut);
+    }
+
+    /**
+     * Copia los bytes de la imagen directamente al stream de salida.
+     */
+    public void escribir(String rut, OutputStream salida) {
+        jdbcTemplate.query(
+                "SELECT DATOS FROM USUARIO_IMAGEN WHERE RUT = ?",
+                (RowCallbackHandler) rs -> {
+                    try (InputStream in = rs.getBinaryStream(1)) {
+                        if (in != null) {
+                            in.transferTo(salida);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                rut
+        );
+    }
+
+    // ============================
+    // MIGRACIÓN DESDE USUARIO.IMAGEN
+    // ============================
+
+    /**
+     * Mueve las imágenes Base64 que aún quedan en la columna USUARIO.IMAGEN
+     * a la tabla USUARIO_IMAGEN y limpia la columna original.
+     *
+     * @return cantidad de imágenes migradas
+     */
+    public int migrarImagenesLegado() {
+        List<String> ruts = jdbcTemplate.queryForList(
+                "SELECT RUT FROM USUARIO WHERE IMAGEN IS NOT NULL", String.class);
+
+        int migradas = 0;
+        for (String rut : ruts) {
+            String base64 = jdbcTemplate.queryForObject(
+                    "SELECT IMAGEN FROM USUARIO WHERE RUT = ?", String.class, rut);
+            try {
+                if (base64 != null && !base64.isBlank()) {
+                    guardarBase64(rut, base64);
+                    migradas++;
+                }
+                jdbcTemplate.update("UPDATE USUARIO SET IMAGEN = NULL WHERE RUT = ?", rut);
+            } catch (IllegalArgumentException e) {
+                log.warn("No se pudo migrar la imagen de {}: {}", rut, e.getMessage());
+            }
+        }
+        return migradas;
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private ImagenMetadata guardarBytes(String rut, byte[] bytes, String contentTypeDeclarado) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("La imagen no puede estar vacía");
+        }
+
+        String contentType = detectarContentType(bytes, contentTypeDeclarado);
+
+        String etag = sha256(bytes);
+        OffsetDateTime ahora = OffsetDateTime.now(ZoneOffset.UTC);
+
+        // UPDATE y, si no había fila, INSERT: sin el SELECT previo (con el BLOB anterior)
+        // que haría imagenRepository.save() con un id asignado
+        int filas = jdbcTemplate.update(ACTUALIZAR_IMAGEN, bytes, contentType, (long) bytes.length, etag, ahora, rut);
+        if (filas == 0) {
+            try {
+                jdbcTemplate.update(INSERTAR_IMAGEN, rut, bytes, contentType, (long) bytes.length, etag, ahora);
+            } catch (DuplicateKeyException e) {
+                // Otra subida del mismo usuario insertó primero
+                jdbcTemplate.update(ACTUALIZAR_IMAGEN, bytes, contentType, (long) bytes.length, etag, ahora, rut);
+            }
+        }
+        return new Metadata(contentType, (long) bytes.length, etag);
+    }
+
+    private byte[] leerConLimite(InputStream datos) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        byte[] bloque = new byte[8192];
+        long total = 0;
+        try {
+            int leidos;
+            while ((leidos = datos.read(bloque)) != -1) {
+                total += leidos;
+                if (total > maxBytes) {
+                    throw new ImagenDemasiadoGrandeException(maxBytes);
+                }
+                buffer.write(bloque, 0, leidos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Reconoce el formato por los primeros bytes; si no se reconoce se acepta
+     * el Content-Type declarado solo si es uno de los permitidos.
+     */
+    private static String detectarContentType(byte[] b, String declarado) {
+        if (b.length >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (b.length >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G') {
+            return "image/png";
+        }
+        if (b.length >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8') {
+            return "image/gif";
+        }
+        if (b.length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            return "image/webp";
+        }
+        if (declarado != null && TIPOS_PERMITIDOS.contains(declarado.toLowerCase())) {
+            return declarado.toLowerCase();
+        }
+        throw new IllegalArgumentException("Formato de imagen no soportado. Usa JPEG, PNG, WEBP o GIF");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Metadata(String contentType, Long tamano, String etag) implements ImagenMetadata {
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public Long getTamano() {
+            return tamano;
+        }
+
+        @Override
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -1,31 +1,126 @@
 package cl.milsabores.authservice.service;
 
+import cl.milsabores.authservice.cache.CacheVistaUsuarios;
+import cl.milsabores.authservice.cache.FiltroMailsRegistrados;
 import cl.milsabores.authservice.dto.CrearUsuarioRequest;
 import cl.milsabores.authservice.dto.LoginRequest;
+import cl.milsabores.authservice.dto.ResultadoImportacionDto;
 import cl.milsabores.authservice.dto.UsuarioResponseDto;
+import cl.milsabores.authservice.dto.UsuarioVistaDto;
+import cl.milsabores.authservice.exception.AccesoDenegadoException;
+import cl.milsabores.authservice.exception.ServicioSaturadoException;
+import cl.milsabores.authservice.model.CredencialesUsuario;
 import cl.milsabores.authservice.model.Usuario;
+import cl.milsabores.authservice.repository.UsuarioBatchRepository;
+import cl.milsabores.authservice.repository.UsuarioImagenRepository.ImagenMetadata;
 import cl.milsabores.authservice.repository.UsuarioRepository;
 import cl.milsabores.authservice.security.JwtUtil;
+import cl.milsabores.authservice.security.PasswordHasher;
+import cl.milsabores.authservice.security.TokenClaims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UsuarioService {
 
+    private static final Logger log = LoggerFactory.getLogger(UsuarioService.class);
+
+    // Rol por defecto de los usuarios que se registran por la API
+    private static final int ROL_CLIENTE = 1;
+
+    // Fecha de nacimiento en formato "dd-MM-yyyy" (DateTimeFormatter es inmutable y thread-safe)
+    private static final DateTimeFormatter FORMATO_FECHA_NAC = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    // Oracle admite como máximo 1000 elementos en un IN (...)
+    private static final int MAX_TAMANO_LOTE = 1000;
+
     private final UsuarioRepository usuarioRepository;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordEncoder;
+    private final ImagenPerfilService imagenPerfilService;
+    private final UsuarioBatchRepository usuarioBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FiltroMailsRegistrados filtroMails;
+    private final CacheVistaUsuarios cacheVistaUsuarios;
+    private final int tamanoLoteImportacion;
+    private final int hilosHashImportacion;
+
+    // Latencia por fase de login y registro (auth.phase{operation, phase})
+    private final Timer registroBusqueda;
+    private final Timer registroBcrypt;
+    private final Timer registroInsercion;
+    private final Timer registroJwt;
+    private final Timer loginBusqueda;
+    private final Timer loginBcrypt;
+    private final Timer loginRehash;
+    private final Timer loginJwt;
+    private final Counter rehashPospuestos;
 
     @Autowired
-    public UsuarioService(UsuarioRepository usuarioRepository, JwtUtil jwtUtil) {
+    public UsuarioService(UsuarioRepository usuarioRepository, JwtUtil jwtUtil, PasswordHasher passwordEncoder,
+                          ImagenPerfilService imagenPerfilService,
+                          UsuarioBatchRepository usuarioBatchRepository,
+                          PlatformTransactionManager transactionManager,
+                          FiltroMailsRegistrados filtroMails,
+                          CacheVistaUsuarios cacheVistaUsuarios,
+                          @Value("${auth.importacion.tamano-lote:500}") int tamanoLoteImportacion,
+                          @Value("${auth.importacion.hilos-hash:0}") int hilosHashImportacion,
+                          MeterRegistry meterRegistry) {
         this.usuarioRepository = usuarioRepository;
         this.jwtUtil = jwtUtil;
+        this.passwordEncoder = passwordEncoder;
+        this.imagenPerfilService = imagenPerfilService;
+        this.usuarioBatchRepository = usuarioBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.filtroMails = filtroMails;
+        this.cacheVistaUsuarios = cacheVistaUsuarios;
+        this.tamanoLoteImportacion = Math.max(1, Math.min(tamanoLoteImportacion, MAX_TAMANO_LOTE));
+        // Por defecto la importación usa la mitad del pool de BCrypt, para no dejar sin hilos al login
+        this.hilosHashImportacion = hilosHashImportacion > 0
+                ? hilosHashImportacion
+                : Math.max(1, passwordEncoder.getHilos() / 2);
+
+        this.registroBusqueda = timerFase(meterRegistry, "register", "db-lookup");
+        this.registroBcrypt = timerFase(meterRegistry, "register", "bcrypt");
+        this.registroInsercion = timerFase(meterRegistry, "register", "db-insert");
+        this.registroJwt = timerFase(meterRegistry, "register", "jwt");
+        this.loginBusqueda = timerFase(meterRegistry, "login", "db-lookup");
+        this.loginBcrypt = timerFase(meterRegistry, "login", "bcrypt");
+        this.loginRehash = timerFase(meterRegistry, "login", "rehash");
+        this.loginJwt = timerFase(meterRegistry, "login", "jwt");
+        this.rehashPospuestos = Counter.builder("auth.login.rehash.deferred")
+                .description("Rehash de contraseña pospuesto por el pool de BCrypt saturado")
+                .register(meterRegistry);
+    }
+
+    private static Timer timerFase(MeterRegistry meterRegistry, String operacion, String fase) {
+        return Timer.builder("auth.phase")
+                .description("Latencia de cada fase de login y registro")
+                .tag("operation", operacion)
+                .tag("phase", fase)
+                .register(meterRegistry);
     }
 
     // ============================
@@ -33,38 +128,44 @@ public class UsuarioService {
     // ============================
     public UsuarioResponseDto registrar(CrearUsuarioRequest request) {
 
-        // Validar correo único
-        if (usuarioRepository.existsByMail(request.mail())) {
+        // Validar correo único (el filtro descarta sin consultar los correos que seguro no existen)
+        boolean puedeEstarRegistrado = filtroMails.puedeEstarRegistrado(request.mail());
+        if (puedeEstarRegistrado
+                && registroBusqueda.record(() -> usuarioRepository.findCredencialesByMail(request.mail())).isPresent()) {
             throw new IllegalArgumentException("El correo ya se encuentra registrado");
         }
 
         // Parsear fecha de nacimiento en formato "dd-MM-yyyy"
-        LocalDate fechaNac = null;
-        if (request.fechaNac() != null && !request.fechaNac().isBlank()) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-            try {
-                fechaNac = LocalDate.parse(request.fechaNac(), formatter);
-            } catch (DateTimeParseException e) {
-                throw new IllegalArgumentException("Formato de fecha inválido. Usa dd-MM-yyyy (ej: 10-05-2020)");
-            }
-        }
+        LocalDate fechaNac = parsearFechaNac(request.fechaNac());
+
+        String hash = registroBcrypt.record(() -> passwordEncoder.encode(request.password()));
 
         // Crear entidad Usuario
         Usuario usuario = Usuario.builder()
                 .rut(request.rut())
                 .nombre(request.nombre())
                 .mail(request.mail())
-                .password(passwordEncoder.encode(request.password()))
+                .password(hash)
                 // 🔹 Forzamos rol cliente = 1
-                .idrol(1)
+                .idrol(ROL_CLIENTE)
                 .idfirebase(request.idfirebase())
                 .fechaNac(fechaNac)
                 .build();
 
-        usuarioRepository.save(usuario);
+        try {
+            registroInsercion.record(() -> usuarioRepository.save(usuario));
+        } catch (DataIntegrityViolationException e) {
+            // Índice único de mail: cubre registros simultáneos o hechos en otra instancia
+            if (!puedeEstarRegistrado) {
+                // El filtro lo daba por libre (o era el rut, y reconstruir de más no hace daño)
+                filtroMails.desactualizado();
+            }
+            throw new IllegalArgumentException("El correo ya se encuentra registrado");
+        }
+        filtroMails.agregar(usuario.getMail());
 
         // Generar token JWT
-        String token = jwtUtil.generateToken(usuario.getRut(), usuario.getMail());
+        String token = registroJwt.record(() -> jwtUtil.generateToken(usuario.getRut(), usuario.getMail(), usuario.getIdrol()));
 
         return new UsuarioResponseDto(
                 usuario.getRut(),
@@ -73,25 +174,205 @@ public class UsuarioService {
         );
     }
 
+    // ============================
+    // IMPORTACIÓN MASIVA
+    // ============================
+
+    /**
+     * Solo usuarios con un rol distinto a cliente pueden importar.
+     */
+    public void validarPermisoImportacion(String authorizationHeader) {
+        String token = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : null;
+
+        TokenClaims claims = jwtUtil.validar(token)
+                .orElseThrow(() -> new AccesoDenegadoException("Token inválido o ausente", true));
+
+        Integer rol = usuarioRepository.findById(claims.rut())
+                .map(Usuario::getIdrol)
+                .orElseThrow(() -> new AccesoDenegadoException("Token inválido o ausente", true));
+
+        if (rol == null || rol == ROL_CLIENTE) {
+            throw new AccesoDenegadoException("No tienes permisos para importar usuarios", false);
+        }
+    }
+
+    /**
+     * Importa usuarios en lotes: valida cada fila, busca correos y RUTs ya registrados
+     * con una consulta por lote, genera los hashes en paralelo e inserta con JDBC batch.
+     * Cada lote se confirma en su propia transacción.
+     *
+     * @param solicitudes filas leídas del arreglo JSON o del stream NDJSON
+     * @return resultado por fila, en el orden de entrada
+     */
+    public ResultadoImportacionDto importar(Iterator<CrearUsuarioRequest> solicitudes) {
+        List<ResultadoImportacionDto.Fila> resultados = new ArrayList<>();
+        Set<String> mailsVistos = new HashSet<>();
+        Set<String> rutsVistos = new HashSet<>();
+        List<FilaImportacion> lote = new ArrayList<>(tamanoLoteImportacion);
+
+        int numero = 0;
+        while (true) {
+            CrearUsuarioRequest request;
+            try {
+                if (!solicitudes.hasNext()) {
+                    break;
+                }
+                request = solicitudes.next();
+            } catch (RuntimeException e) {
+                // JSON mal formado: no es posible seguir leyendo el stream
+                resultados.add(rechazada(numero + 1, null, "JSON inválido: la importación se detuvo en esta fila"));
+                break;
+            }
+            numero++;
+
+            try {
+                lote.add(validarFilaImportacion(numero, request, mailsVistos, rutsVistos));
+            } catch (IllegalArgumentException e) {
+                resultados.add(rechazada(numero, request, e.getMessage()));
+            }
+
+            if (lote.size() >= tamanoLoteImportacion) {
+                procesarLote(lote, resultados);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, resultados);
+        }
+
+        resultados.sort(Comparator.comparingInt(ResultadoImportacionDto.Fila::fila));
+        int creados = (int) resultados.stream()
+                .filter(r -> ResultadoImportacionDto.CREADO.equals(r.estado()))
+                .count();
+        return new ResultadoImportacionDto(resultados.size(), creados, resultados.size() - creados, resultados);
+    }
+
+    private FilaImportacion validarFilaImportacion(int numero, CrearUsuarioRequest request,
+                                                   Set<String> mailsVistos, Set<String> rutsVistos) {
+        if (request == null || esVacio(request.rut()) || esVacio(request.mail()) || esVacio(request.password())) {
+            throw new IllegalArgumentException("rut, mail y password son obligatorios");
+        }
+        LocalDate fechaNac = parsearFechaNac(request.fechaNac());
+        if (!mailsVistos.add(request.mail())) {
+            throw new IllegalArgumentException("Correo repetido dentro de la importación");
+        }
+        if (!rutsVistos.add(request.rut())) {
+            throw new IllegalArgumentException("RUT repetido dentro de la importación");
+        }
+        return new FilaImportacion(numero, request, fechaNac);
+    }
+
+    private void procesarLote(List<FilaImportacion> lote, List<ResultadoImportacionDto.Fila> resultados) {
+        // Una consulta por lote en vez de un existsByMail por usuario
+        Set<String> mailsRegistrados = new HashSet<>(usuarioRepository.findMailsRegistrados(
+                lote.stream().map(f -> f.request().mail()).toList()));
+        Set<String> rutsRegistrados = new HashSet<>(usuarioRepository.findRutsRegistrados(
+                lote.stream().map(f -> f.request().rut()).toList()));
+
+        List<FilaImportacion> nuevas = new ArrayList<>(lote.size());
+        for (FilaImportacion fila : lote) {
+            if (mailsRegistrados.contains(fila.request().mail())) {
+                resultados.add(rechazada(fila.numero(), fila.request(), "El correo ya se encuentra registrado"));
+            } else if (rutsRegistrados.contains(fila.request().rut())) {
+                resultados.add(rechazada(fila.numero(), fila.request(), "El RUT ya se encuentra registrado"));
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeLote(
+                nuevas.stream().map(f -> f.request().password()).toList(), hilosHashImportacion);
+
+        List<Usuario> usuarios = new ArrayList<>(nuevas.size());
+        for (int i = 0; i < nuevas.size(); i++) {
+            CrearUsuarioRequest request = nuevas.get(i).request();
+            usuarios.add(Usuario.builder()
+                    .rut(request.rut())
+                    .nombre(request.nombre())
+                    .mail(request.mail())
+                    .password(hashes.get(i))
+                    .idrol(ROL_CLIENTE)
+                    .idfirebase(request.idfirebase())
+                    .fechaNac(nuevas.get(i).fechaNac())
+                    .build());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(estado -> usuarioBatchRepository.insertarLote(usuarios));
+            for (FilaImportacion fila : nuevas) {
+                filtroMails.agregar(fila.request().mail());
+                resultados.add(creada(fila));
+            }
+        } catch (DataAccessException e) {
+            // Algún registro chocó (p.ej. se creó en paralelo): se reintenta fila a fila para aislarlo
+            for (int i = 0; i < nuevas.size(); i++) {
+                FilaImportacion fila = nuevas.get(i);
+                try {
+                    usuarioBatchRepository.insertar(usuarios.get(i));
+                    filtroMails.agregar(fila.request().mail());
+                    resultados.add(creada(fila));
+                } catch (DataIntegrityViolationException ex) {
+                    resultados.add(rechazada(fila.numero(), fila.request(), "El correo o RUT ya se encuentra registrado"));
+                } catch (DataAccessException ex) {
+                    resultados.add(rechazada(fila.numero(), fila.request(), "No se pudo guardar el usuario"));
+                }
+            }
+        }
+    }
+
+    private static ResultadoImportacionDto.Fila creada(FilaImportacion fila) {
+        return new ResultadoImportacionDto.Fila(fila.numero(), fila.request().rut(), fila.request().mail(),
+                ResultadoImportacionDto.CREADO, null);
+    }
+
+    private static ResultadoImportacionDto.Fila rechazada(int numero, CrearUsuarioRequest request, String detalle) {
+        return new ResultadoImportacionDto.Fila(numero,
+                request != null ? request.rut() : null,
+                request != null ? request.mail() : null,
+                ResultadoImportacionDto.RECHAZADO, detalle);
+    }
+
+    private record FilaImportacion(int numero, CrearUsuarioRequest request, LocalDate fechaNac) {
+    }
+
     // ============================
     // LOGIN
     // ============================
     public UsuarioResponseDto login(LoginRequest request) {
         // Asumo que LoginRequest tiene: String mail, String password
-        Optional<Usuario> optionalUsuario = usuarioRepository.findByMail(request.mail());
+        // Solo rut, mail y hash: no se carga ni administra la entidad Usuario
+        Optional<CredencialesUsuario> optionalCredenciales =
+                loginBusqueda.record(() -> usuarioRepository.findCredencialesByMail(request.mail()));
 
-        Usuario usuario = optionalUsuario
+        CredencialesUsuario credenciales = optionalCredenciales
                 .orElseThrow(() -> new IllegalArgumentException("Correo o contraseña incorrectos"));
 
-        if (!passwordEncoder.matches(request.password(), usuario.getPassword())) {
+        Boolean coincide = loginBcrypt.record(() -> passwordEncoder.matches(request.password(), credenciales.password()));
+        if (!Boolean.TRUE.equals(coincide)) {
             throw new IllegalArgumentException("Correo o contraseña incorrectos");
         }
 
-        String token = jwtUtil.generateToken(usuario.getRut(), usuario.getMail());
+        // Si el hash se generó con otro costo, lo regeneramos ahora que conocemos la contraseña
+        if (passwordEncoder.requiereRehash(credenciales.password())) {
+            try {
+                loginRehash.record(() -> usuarioRepository.actualizarPassword(
+                        credenciales.rut(), passwordEncoder.encode(request.password())));
+            } catch (ServicioSaturadoException e) {
+                // No es crítico: se reintentará en el próximo login
+                rehashPospuestos.increment();
+            }
+        }
+
+        String token = loginJwt.record(() -> jwtUtil.generateToken(credenciales.rut(), credenciales.mail(), credenciales.idrol()));
 
         return new UsuarioResponseDto(
-                usuario.getRut(),
-                usuario.getMail(),
+                credenciales.rut(),
+                credenciales.mail(),
                 token
         );
     }
@@ -99,8 +380,8 @@ public class UsuarioService {
     // ============================
     // BUSCAR POR FIREBASE
     // ============================
-    public Optional<Usuario> buscarPorFirebase(String idFirebase) {
-        return usuarioRepository.findByIdfirebase(idFirebase);
+    public Optional<UsuarioVistaDto> buscarPorFirebase(String idFirebase) {
+        return cacheVistaUsuarios.obtener(idFirebase, usuarioRepository::findVistaByIdfirebase);
     }
 
     // ============================
@@ -112,8 +393,9 @@ public class UsuarioService {
 
         usuario.setNombre(nuevoNombre);
         usuarioRepository.save(usuario);
+        cacheVistaUsuarios.invalidarPorIdFirebase(usuario.getIdfirebase());
 
-        String token = jwtUtil.generateToken(usuario.getRut(), usuario.getMail());
+        String token = jwtUtil.generateToken(usuario.getRut(), usuario.getMail(), usuario.getIdrol());
 
         return new UsuarioResponseDto(
                 usuario.getRut(),
@@ -123,18 +405,60 @@ public class UsuarioService {
     }
 
     // ============================
-    // ACTUALIZAR FOTO DE PERFIL (Base64)
+    // ACTUALIZAR FOTO DE PERFIL
     // ============================
-    public void actualizarFotoPerfil(String rut, String imagenBase64) {
+
+    /**
+     * Subida binaria: el cuerpo se lee por partes con límite de tamaño.
+     */
+    public ImagenMetadata actualizarFotoPerfil(String rut, InputStream datos, String contentType) {
+        validarUsuarioExiste(rut);
+        ImagenMetadata metadata = imagenPerfilService.guardar(rut, datos, contentType);
+        cacheVistaUsuarios.invalidarPorRut(rut);
+        return metadata;
+    }
+
+    /**
+     * Compatibilidad: imagen enviada como Base64 dentro de un JSON.
+     */
+    public ImagenMetadata actualizarFotoPerfil(String rut, String imagenBase64) {
         if (imagenBase64 == null || imagenBase64.isBlank()) {
             throw new IllegalArgumentException("La imagen no puede estar vacía");
         }
+        validarUsuarioExiste(rut);
+        ImagenMetadata metadata = imagenPerfilService.guardarBase64(rut, imagenBase64);
+        cacheVistaUsuarios.invalidarPorRut(rut);
+        return metadata;
+    }
 
-        Usuario usuario = usuarioRepository.findById(rut)
-                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
+    private static LocalDate parsearFechaNac(String fechaNac) {
+        if (fechaNac == null || fechaNac.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(fechaNac, FORMATO_FECHA_NAC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de fecha inválido. Usa dd-MM-yyyy (ej: 10-05-2020)");
+        }
+    }
 
-        usuario.setImagen(imagenBase64);
-        usuarioRepository.save(usuario);
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    // Para los logs: "ana@milsabores.cl" -> "a***@milsabores.cl"
+    private static String enmascararMail(String mail) {
+        int arroba = mail != null ? mail.indexOf('@') : -1;
+        if (arroba < 1) {
+            return "***";
+        }
+        return mail.charAt(0) + "***" + mail.substring(arroba);
+    }
+
+    private void validarUsuarioExiste(String rut) {
+        if (!usuarioRepository.existsById(rut)) {
+            throw new IllegalArgumentException("Usuario no encontrado");
+        }
     }
 
     // ============================
@@ -144,21 +468,24 @@ public class UsuarioService {
     /**
      * Paso 1: iniciar recuperación de contraseña.
      * Modo académico: no informamos si el correo existe o no,
-     * solo dejamos trazas internas.
+     * solo dejamos trazas internas. Los correos que el filtro (reciente) da por no
+     * registrados no consultan la base: la respuesta es la misma en ambos casos.
      */
     public void iniciarRecuperacionContrasena(String mail) {
-        Optional<Usuario> optionalUsuario = usuarioRepository.findByMail(mail);
-        if (optionalUsuario.isEmpty()) {
-            System.out.println("[RECUPERAR] Solicitud de recuperación para correo NO registrado: " + mail);
+        Optional<CredencialesUsuario> optionalCredenciales = filtroMails.seguroNoRegistrado(mail)
+                ? Optional.empty()
+                : usuarioRepository.findCredencialesByMail(mail);
+        if (optionalCredenciales.isEmpty()) {
+            log.debug("Solicitud de recuperación para correo no registrado: {}", enmascararMail(mail));
             return;
         }
 
-        Usuario usuario = optionalUsuario.get();
+        CredencialesUsuario credenciales = optionalCredenciales.get();
         // En un escenario real:
         // - generaríamos un token de recuperación
         // - lo guardaríamos con expiración
         // - enviaríamos un correo
-        System.out.println("[RECUPERAR] Se inició recuperación de contraseña para: " + usuario.getMail());
+        log.debug("Se inició recuperación de contraseña para: {}", enmascararMail(credenciales.mail()));
     }
 
     /**
@@ -166,14 +493,12 @@ public class UsuarioService {
      * Flujo simple/ académico: solo valida que el correo exista.
      */
     public void resetearContrasena(String mail, String nuevaPassword) {
-        Optional<Usuario> optionalUsuario = usuarioRepository.findByMail(mail);
-
-        Usuario usuario = optionalUsuario
+        CredencialesUsuario credenciales = usuarioRepository.findCredencialesByMail(mail)
                 .orElseThrow(() -> new IllegalArgumentException("Correo no registrado"));
 
-        usuario.setPassword(passwordEncoder.encode(nuevaPassword));
-        usuarioRepository.save(usuario);
+        usuarioRepository.actualizarPassword(credenciales.rut(), passwordEncoder.encode(nuevaPassword));
+        cacheVistaUsuarios.invalidarPorRut(credenciales.rut());
 
-        System.out.println("[RECUPERAR] Contraseña reseteada para: " + usuario.getMail());
+        log.debug("Contraseña reseteada para: {}", enmascararMail(credenciales.mail()));
     }
 }
@@ -0,0 +1,13 @@
+-- Mismo esquema que db/migration/oracle/V1__esquema_inicial.sql para el perfil embebido (H2 en modo Oracle).
+
+create table usuario (
+    rut        varchar(255) not null,
+    nombre     varchar(255),
+    mail       varchar(255),
+    password   varchar(255),
+    idrol      integer,
+    idfirebase varchar(255),
+    fechanac   date,
+    imagen     varchar(255),
+    primary key (rut)
+);
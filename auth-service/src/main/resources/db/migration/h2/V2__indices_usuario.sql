@@ -0,0 +1,3 @@
+create unique index UX_USUARIO_MAIL on usuario (mail);
+
+create index IX_USUARIO_IDFIREBASE on usuario (idfirebase);
@@ -0,0 +1,9 @@
+create table usuario_imagen (
+    rut            varchar(255) not null,
+    datos          blob not null,
+    content_type   varchar(255) not null,
+    tamano         bigint not null,
+    etag           varchar(255) not null,
+    actualizado_en timestamp(6) with time zone,
+    primary key (rut)
+);
@@ -0,0 +1,16 @@
+-- Esquema que generaba spring.jpa.hibernate.ddl-auto=update.
+-- En una base que ya lo tiene, Flyway registra esta versión como baseline sin ejecutarla
+-- (spring.flyway.baseline-on-migrate / baseline-version=1): no se edita, los cambios van en V2 en adelante.
+
+create table usuario (
+    rut        varchar2(255 char) not null,
+    nombre     varchar2(255 char),
+    mail       varchar2(255 char),
+    password   varchar2(255 char),
+    idrol      number(10,0),
+    idfirebase varchar2(255 char),
+    fechanac   date,
+    -- Fotos Base64 anteriores a USUARIO_IMAGEN (ver usuarios.imagen.migrar-legado)
+    imagen     varchar2(255 char),
+    primary key (rut)
+);
@@ -0,0 +1,5 @@
+-- Login y validación de correo único. Falla si ya hay correos repetidos: hay que resolverlos antes.
+create unique index UX_USUARIO_MAIL on usuario (mail);
+
+-- Búsqueda desde la app móvil (/auth/usuarios/firebase/{idFirebase})
+create index IX_USUARIO_IDFIREBASE on usuario (idfirebase);
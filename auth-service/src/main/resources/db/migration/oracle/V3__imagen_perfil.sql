@@ -0,0 +1,10 @@
+-- Imagen de perfil en binario, fuera de USUARIO (ver ImagenPerfilService)
+create table usuario_imagen (
+    rut            varchar2(255 char) not null,
+    datos          blob not null,
+    content_type   varchar2(255 char) not null,
+    tamano         number(19,0) not null,
+    etag           varchar2(255 char) not null,
+    actualizado_en timestamp(6) with time zone,
+    primary key (rut)
+);
@@ -0,0 +1,38 @@
+package cl.milsabores.authservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void nuncaDaFalsosNegativos() {
+        BloomFilter filtro = BloomFilter.paraCapacidad(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("usuario" + i + "@milsabores.cl");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.puedeContener("usuario" + i + "@milsabores.cl"));
+        }
+        assertEquals(10_000, filtro.getInsertados());
+    }
+
+    @Test
+    void tasaDeFalsosPositivosCercanaALaConfigurada() {
+        BloomFilter filtro = BloomFilter.paraCapacidad(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar("usuario" + i + "@milsabores.cl");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.puedeContener("bot" + i + "@spam.example")) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos / 100_000.0 < 0.02, "fpp observada: " + falsosPositivos / 100_000.0);
+        assertEquals(0.01, filtro.fppEstimada(), 0.005);
+    }
+}
@@ -0,0 +1,60 @@
+package cl.milsabores.authservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroMailsRegistradosTest {
+
+    private EmbeddedDatabase base;
+
+    @BeforeEach
+    void crearBase() {
+        base = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(base);
+        jdbc.execute("create table usuario (rut varchar(20) primary key, mail varchar(255))");
+        jdbc.update("insert into usuario values ('1-9', 'ana@milsabores.cl')");
+    }
+
+    @AfterEach
+    void cerrarBase() {
+        base.shutdown();
+    }
+
+    @Test
+    void conFiltroRecienteDescartaSoloLosCorreosNoRegistrados() {
+        FiltroMailsRegistrados filtro = filtro(60_000);
+        assertFalse(filtro.seguroNoRegistrado("bot@ejemplo.com"), "sin construir no descarta");
+
+        filtro.reconstruir();
+
+        assertTrue(filtro.seguroNoRegistrado("bot@ejemplo.com"));
+        assertFalse(filtro.seguroNoRegistrado("ana@milsabores.cl"));
+    }
+
+    @Test
+    void unFiltroViejoNoDescartaNada() throws InterruptedException {
+        FiltroMailsRegistrados filtro = filtro(1);
+        filtro.reconstruir();
+        Thread.sleep(5);
+
+        // Alta hecha fuera de esta instancia: el filtro viejo no la conoce
+        assertFalse(filtro.seguroNoRegistrado("bot@ejemplo.com"));
+        // Para el registro (protegido por el índice único) sigue sirviendo
+        assertFalse(filtro.puedeEstarRegistrado("bot@ejemplo.com"));
+    }
+
+    private FiltroMailsRegistrados filtro(long frescuraMaxMs) {
+        return new FiltroMailsRegistrados(base, true, 0.01, 100, frescuraMaxMs, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,56 @@
+package cl.milsabores.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRETO = "clave-de-prueba-para-jwt-con-al-menos-32-bytes";
+
+    private SimpleMeterRegistry registry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SECRETO, 100, registry);
+    }
+
+    @Test
+    void validarDevuelveClaimsTipados() {
+        String token = jwtUtil.generateToken("11111111-1", "ana@milsabores.cl", 1);
+
+        TokenClaims claims = jwtUtil.validar(token).orElseThrow();
+
+        assertEquals("11111111-1", claims.rut());
+        assertEquals("ana@milsabores.cl", claims.email());
+        assertEquals(1, claims.rol());
+        assertTrue(claims.expiraEn().isAfter(claims.emitidoEn()));
+    }
+
+    @Test
+    void segundaValidacionSeResuelveDesdeCache() {
+        String token = jwtUtil.generateToken("11111111-1", "ana@milsabores.cl", 1);
+
+        assertTrue(jwtUtil.isTokenValid(token, "11111111-1"));
+        assertTrue(jwtUtil.isTokenValid(token, "11111111-1"));
+
+        assertEquals(1, jwtUtil.getCacheMisses());
+        assertEquals(1, jwtUtil.getCacheHits());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwt").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void tokenAlteradoOConOtroRutNoEsValido() {
+        String token = jwtUtil.generateToken("11111111-1", "ana@milsabores.cl", 1);
+        String alterado = token.substring(0, token.length() - 2) + "xx";
+
+        assertTrue(jwtUtil.validar(alterado).isEmpty());
+        assertTrue(jwtUtil.validar("no-es-un-jwt").isEmpty());
+        assertFalse(jwtUtil.isTokenValid(token, "22222222-2"));
+    }
+}
@@ -0,0 +1,31 @@
+package cl.milsabores.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(4, 2, 10, 5000, new SimpleMeterRegistry());
+
+    @Test
+    void encodeYMatchesEnElPoolDedicado() {
+        String hash = hasher.encode("secreto");
+
+        assertTrue(hasher.matches("secreto", hash));
+        assertFalse(hasher.matches("otra", hash));
+    }
+
+    @Test
+    void detectaHashesConCostoDistinto() {
+        String hashCosto4 = hasher.encode("secreto");
+        String hashCosto5 = new BCryptPasswordEncoder(5).encode("secreto");
+
+        assertFalse(hasher.requiereRehash(hashCosto4));
+        assertTrue(hasher.requiereRehash(hashCosto5));
+        assertFalse(hasher.requiereRehash("texto-plano"));
+        assertFalse(hasher.requiereRehash(null));
+    }
+}
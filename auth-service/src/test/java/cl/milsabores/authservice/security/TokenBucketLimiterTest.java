@@ -0,0 +1,67 @@
+package cl.milsabores.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    @Test
+    void rechazaAlAgotarLaCapacidadYSeRecarga() {
+        TokenBucketLimiter limitador = new TokenBucketLimiter(3, 60, 100, 60_000, reloj::get);
+
+        assertEquals(0, limitador.intentarConsumir("1.2.3.4"));
+        assertEquals(0, limitador.intentarConsumir("1.2.3.4"));
+        assertEquals(0, limitador.intentarConsumir("1.2.3.4"));
+
+        long espera = limitador.intentarConsumir("1.2.3.4");
+        assertTrue(espera > 0 && espera <= TimeUnit.SECONDS.toNanos(1));
+
+        // Otra clave tiene su propio bucket
+        assertEquals(0, limitador.intentarConsumir("5.6.7.8"));
+
+        // 60 por minuto -> un token por segundo
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limitador.intentarConsumir("1.2.3.4"));
+    }
+
+    @Test
+    void memoriaAcotadaConDesalojoDeInactivos() {
+        TokenBucketLimiter limitador = new TokenBucketLimiter(1, 60, 2, 1_000, reloj::get);
+
+        limitador.intentarConsumir("a");
+        limitador.intentarConsumir("b");
+        limitador.intentarConsumir("c");
+        assertTrue(limitador.size() <= 3);
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        limitador.eliminarInactivos();
+        assertEquals(0, limitador.size());
+    }
+
+    @Test
+    void conLaTablaLlenaLasClavesNuevasNoCompartenUnBucket() {
+        TokenBucketLimiter limitador = new TokenBucketLimiter(1, 1, 100, 600_000, reloj::get);
+
+        // Un atacante llena la tabla con correos distintos (todos activos)
+        for (int i = 0; i < 100; i++) {
+            limitador.intentarConsumir("atacante" + i + "@mail.cl");
+        }
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // Los correos legítimos nuevos no quedan bloqueados por los anteriores
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, limitador.intentarConsumir("cliente" + i + "@mail.cl"));
+        }
+        assertEquals(100, limitador.size());
+        assertEquals(20, limitador.desbordes());
+
+        // Las claves ya registradas siguen limitadas
+        assertTrue(limitador.intentarConsumir("atacante0@mail.cl") > 0);
+    }
+}
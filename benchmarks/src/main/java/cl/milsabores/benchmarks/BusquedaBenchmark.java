@@ -0,0 +1,69 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.productservice.cache.IndiceBusqueda;
+import cl.milsabores.productservice.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda por texto sobre el índice en memoria del catálogo: autocompletado
+ * (prefijo), término completo, consulta de dos términos y término con error de tipeo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BusquedaBenchmark {
+
+    private static final String[] CATEGORIAS = {"Tortas", "Pastelería", "Galletas", "Panes", "Postres"};
+    private static final String[] SABORES = {"Chocolate", "Manjar", "Frambuesa", "Lúcuma", "Nuez", "Vainilla",
+            "Piña", "Limón", "Mil Hojas", "Tres Leches", "Durazno", "Mora"};
+
+    @Param({"1000", "10000"})
+    public int productos;
+
+    IndiceBusqueda indice;
+
+    @Setup
+    public void preparar() {
+        List<Producto> lista = new ArrayList<>(productos);
+        for (int i = 0; i < productos; i++) {
+            String categoria = CATEGORIAS[i % CATEGORIAS.length];
+            lista.add(Producto.builder()
+                    .id((long) i + 1)
+                    .nombre(categoria + " de " + SABORES[i % SABORES.length] + " " + i)
+                    .descripcion("Preparada con " + SABORES[(i / 7) % SABORES.length] + ", receta número " + i)
+                    .precio(BigDecimal.valueOf(1_000 + (i % 50) * 500L))
+                    .categoria(categoria)
+                    .disponible(true)
+                    .build());
+        }
+        indice = IndiceBusqueda.de(lista);
+    }
+
+    @Benchmark
+    public List<Long> autocompletar() {
+        return indice.buscar("frambu", 10);
+    }
+
+    @Benchmark
+    public List<Long> terminoCompleto() {
+        return indice.buscar("lucuma", 10);
+    }
+
+    @Benchmark
+    public List<Long> dosTerminos() {
+        return indice.buscar("torta choc", 10);
+    }
+
+    @Benchmark
+    public List<Long> conErrorDeTipeo() {
+        return indice.buscar("vainila", 10);
+    }
+}
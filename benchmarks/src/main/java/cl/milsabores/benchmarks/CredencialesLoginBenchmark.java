@@ -0,0 +1,146 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.authservice.model.CredencialesUsuario;
+import cl.milsabores.authservice.model.Usuario;
+import cl.milsabores.authservice.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de credenciales del login de auth-service contra H2 en memoria con 1.000 usuarios
+ * (docs/RENDIMIENTO.md): la entidad {@link Usuario} completa, como hacía el antiguo
+ * {@code findByMail}, frente a la proyección {@code findCredencialesByMail}.
+ * <p>
+ * Con -prof gc, {@code gc.alloc.rate.norm} es lo asignado por login (incluye el trabajo de H2,
+ * que corre en el mismo hilo: lo relevante es la diferencia). Al preparar se verifica con
+ * las estadísticas de Hibernate que la entidad carga una instancia por login y la proyección ninguna.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredencialesLoginBenchmark {
+
+    private static final int USUARIOS = 1_000;
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6Z3Qj1pQJv5rJq1e6q8V1yW";
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioRepository repo;
+    private EntityManager entityManager;
+    private TransactionTemplate soloLectura;
+    private int siguiente;
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Usuario.class)
+    @EnableJpaRepositories(basePackageClasses = UsuarioRepository.class)
+    static class ContextoLogin {
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        // Argumentos de línea de comando: pisan el application.properties (Oracle) de auth-service
+        contexto = new SpringApplicationBuilder(ContextoLogin.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-login;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        // Sin el bulkhead ni las estadísticas de SQL de db-comun: se mide solo la consulta
+                        "--db.bulkhead.habilitado=false",
+                        "--sql.estadisticas.habilitado=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        repo = contexto.getBean(UsuarioRepository.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        soloLectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+        poblar(contexto.getBean(JdbcTemplate.class));
+        verificarCargas();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String entidad() {
+        String mail = siguienteMail();
+        // Lo que hacía findByMail: la entidad administrada con todas sus columnas
+        return soloLectura.execute(estado -> entityManager
+                .createQuery("select u from Usuario u where u.mail = :mail", Usuario.class)
+                .setParameter("mail", mail)
+                .getSingleResult()
+                .getPassword());
+    }
+
+    @Benchmark
+    public String proyeccion() {
+        CredencialesUsuario credenciales = repo.findCredencialesByMail(siguienteMail()).orElseThrow();
+        return credenciales.password();
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void verificarCargas() {
+        Statistics estadisticas = contexto.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class).getStatistics();
+        long antes = estadisticas.getEntityLoadCount();
+        entidad();
+        long porEntidad = estadisticas.getEntityLoadCount() - antes;
+        proyeccion();
+        long porProyeccion = estadisticas.getEntityLoadCount() - antes - porEntidad;
+        if (porEntidad != 1 || porProyeccion != 0) {
+            throw new IllegalStateException("Entidades cargadas por login: entidad=" + porEntidad
+                    + ", proyección=" + porProyeccion);
+        }
+    }
+
+    private String siguienteMail() {
+        siguiente = siguiente % USUARIOS + 1;
+        return "cliente" + siguiente + "@milsabores.test";
+    }
+
+    private static void poblar(JdbcTemplate jdbc) {
+        List<Object[]> filas = new ArrayList<>(USUARIOS);
+        for (int i = 1; i <= USUARIOS; i++) {
+            filas.add(new Object[] {
+                    Integer.toString(10_000_000 + i) + "-" + (i % 10),
+                    "Cliente " + i,
+                    "cliente" + i + "@milsabores.test",
+                    HASH,
+                    1,
+                    "firebase-uid-" + i,
+                    java.sql.Date.valueOf("1990-01-01")
+            });
+        }
+        jdbc.batchUpdate("insert into usuario (rut, nombre, mail, password, idrol, idfirebase, fechanac) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", filas);
+    }
+}
@@ -0,0 +1,192 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import cl.milsabores.productservice.service.ExportadorCatalogo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportación NDJSON de product-service (ExportadorCatalogo) contra una base H2 en disco
+ * de 10 mil a 1 millón de filas, con un heap de 128 MB (1 millón de filas son ~235 MB de NDJSON).
+ * <p>
+ * {@code exportar} mide el tiempo (y con -prof gc la asignación por operación).
+ * {@code exportarMidiendoHeap} fuerza un GC completo cada 16 MB escritos y reporta como
+ * contador auxiliar el máximo de heap vivo visto: si el streaming funciona, se mantiene
+ * plano aunque la tabla crezca 100 veces. La base usa un caché de páginas acotado
+ * (CACHE_SIZE) para que su memoria no se confunda con la del export.
+ * <p>
+ * Se mide una sola iteración por tamaño porque JMH suma los contadores auxiliares
+ * de todas las iteraciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx128m", "-XX:+UseG1GC"})
+public class ExportacionBenchmark {
+
+    private static final int FILAS_POR_LOTE = 5_000;
+    private static final long MUESTRA_CADA_BYTES = 16L << 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private ExportadorCatalogo exportador;
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Producto.class)
+    @EnableJpaRepositories(basePackageClasses = ProductoRepository.class)
+    @Import(ExportadorCatalogo.class)
+    static class ContextoExportacion {
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        File base = new File(System.getProperty("java.io.tmpdir"), "milsabores-bench/export-" + filas);
+        // Argumentos de línea de comando: pisan el application.properties (Oracle) de product-service
+        contexto = new SpringApplicationBuilder(ContextoExportacion.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:" + base.getAbsolutePath() + ";CACHE_SIZE=8192",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        // Sin el bulkhead ni las estadísticas de SQL de db-comun: se mide solo la consulta
+                        "--db.bulkhead.habilitado=false",
+                        "--sql.estadisticas.habilitado=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        exportador = contexto.getBean(ExportadorCatalogo.class);
+        poblar(contexto.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Heap vivo (tras GC completo) durante la exportación y volumen escrito.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memoria {
+        public long filasEscritas;
+        public long mbEscritos;
+        public long muestras;
+        public long heapVivoMaxMb;
+    }
+
+    @Benchmark
+    public long exportar() throws IOException {
+        return exportador.exportar(new ContadorBytes(0), false);
+    }
+
+    @Benchmark
+    public long exportarMidiendoHeap(Memoria memoria) throws IOException {
+        ContadorBytes salida = new ContadorBytes(MUESTRA_CADA_BYTES);
+        long escritas = exportador.exportar(salida, false);
+        salida.muestrear();
+
+        memoria.filasEscritas = escritas;
+        memoria.mbEscritos = salida.total >> 20;
+        memoria.muestras = salida.muestras;
+        memoria.heapVivoMaxMb = salida.heapVivoMax >> 20;
+        return escritas;
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void poblar(JdbcTemplate jdbc) {
+        Long existentes = jdbc.queryForObject("select count(*) from productos", Long.class);
+        if (existentes != null && existentes == filas) {
+            return;
+        }
+        jdbc.update("delete from productos");
+        String sql = "insert into productos (id, nombre, descripcion, precio, categoria, disponible, url_imagen) "
+                + "values (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> lote = new ArrayList<>(FILAS_POR_LOTE);
+        for (long id = 1; id <= filas; id++) {
+            lote.add(new Object[] {
+                    id,
+                    "Producto " + id,
+                    "Descripción del producto número " + id + " del catálogo Mil Sabores",
+                    BigDecimal.valueOf(1_000 + (id % 50) * 500),
+                    "Categoria " + (id % 12),
+                    id % 7 != 0,
+                    "https://cdn.milsabores.cl/productos/" + id + ".jpg"
+            });
+            if (lote.size() == FILAS_POR_LOTE) {
+                jdbc.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbc.batchUpdate(sql, lote);
+        }
+    }
+
+    // Salida que solo cuenta bytes (se mide la lectura y serialización, no la red)
+    // y, si se pide, mide el heap vivo cada cierto volumen escrito
+    private static final class ContadorBytes extends OutputStream {
+        private final long muestraCada;
+        private long siguienteMuestra;
+        long total;
+        long muestras;
+        long heapVivoMax;
+
+        ContadorBytes(long muestraCada) {
+            this.muestraCada = muestraCada;
+            this.siguienteMuestra = muestraCada;
+        }
+
+        @Override
+        public void write(int b) {
+            total++;
+            revisar();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            total += len;
+            revisar();
+        }
+
+        private void revisar() {
+            if (muestraCada > 0 && total >= siguienteMuestra) {
+                siguienteMuestra += muestraCada;
+                muestrear();
+            }
+        }
+
+        void muestrear() {
+            System.gc();
+            muestras++;
+            heapVivoMax = Math.max(heapVivoMax, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+    }
+}
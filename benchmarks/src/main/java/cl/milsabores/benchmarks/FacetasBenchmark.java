@@ -0,0 +1,75 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.productservice.cache.IndiceColumnar;
+import cl.milsabores.productservice.model.Producto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta por facetas sobre las columnas primitivas del catálogo: filtro por
+ * categorías, disponibilidad y rango de precio con los conteos de cada faceta,
+ * y la primera página ordenada por precio. Con -prof gc, gc.alloc.rate.norm
+ * muestra que la asignación por consulta no crece con el tamaño del catálogo
+ * más allá del BitSet y los arreglos de conteo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacetasBenchmark {
+
+    private static final String[] CATEGORIAS = {"Tortas", "Pasteles", "Galletas", "Panes", "Postres",
+            "Kuchenes", "Empanadas", "Alfajores"};
+    private static final long[] LIMITES = {500_000, 1_000_000, 2_000_000, 5_000_000};
+
+    @Param({"1000", "10000", "100000"})
+    public int productos;
+
+    IndiceColumnar columnas;
+    BitSet categoriasPedidas;
+
+    @Setup
+    public void preparar() {
+        List<Producto> lista = new ArrayList<>(productos);
+        for (int i = 0; i < productos; i++) {
+            lista.add(Producto.builder()
+                    .id((long) i + 1)
+                    .nombre("Producto " + i)
+                    .precio(BigDecimal.valueOf(1_000 + (i * 7919L) % 60_000))
+                    .categoria(CATEGORIAS[i % CATEGORIAS.length])
+                    .disponible(i % 7 != 0)
+                    .build());
+        }
+        columnas = IndiceColumnar.de(lista);
+        categoriasPedidas = new BitSet();
+        categoriasPedidas.set(columnas.codigoCategoria("tortas"));
+        categoriasPedidas.set(columnas.codigoCategoria("panes"));
+    }
+
+    @Benchmark
+    public int filtrarYContar() {
+        return columnas.filtrar(categoriasPedidas, Boolean.TRUE, 500_000, 2_000_000, LIMITES).total();
+    }
+
+    @Benchmark
+    public long primeraPaginaPorPrecio() {
+        IndiceColumnar.Filtrado filtrado = columnas.filtrar(categoriasPedidas, Boolean.TRUE, 500_000, 2_000_000, LIMITES);
+        long suma = 0;
+        int encontrados = 0;
+        for (int posicion = 0; posicion < columnas.tamano() && encontrados < 20; posicion++) {
+            int fila = columnas.fila(true, false, posicion);
+            if (filtrado.filas().get(fila)) {
+                suma += columnas.centavos(fila);
+                encontrados++;
+            }
+        }
+        return suma;
+    }
+}
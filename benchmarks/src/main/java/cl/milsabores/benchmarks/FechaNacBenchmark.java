@@ -0,0 +1,41 @@
+package cl.milsabores.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parseo de la fecha de nacimiento de registrar (formato dd-MM-yyyy).
+ * Compara armar el DateTimeFormatter en cada llamada contra reutilizar
+ * una constante, que es lo que hace UsuarioService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FechaNacBenchmark {
+
+    private static final DateTimeFormatter FORMATO_FECHA_NAC = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final String[] fechas = {"10-05-2020", "01-01-1990", "31-12-1985", "29-02-2000"};
+    private int siguiente;
+
+    private String siguienteFecha() {
+        siguiente = (siguiente + 1) & 3;
+        return fechas[siguiente];
+    }
+
+    @Benchmark
+    public LocalDate formatterPorLlamada() {
+        return LocalDate.parse(siguienteFecha(), DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+    }
+
+    @Benchmark
+    public LocalDate formatterConstante() {
+        return LocalDate.parse(siguienteFecha(), FORMATO_FECHA_NAC);
+    }
+}
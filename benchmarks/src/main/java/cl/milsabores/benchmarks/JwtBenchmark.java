@@ -0,0 +1,60 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.authservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de JWT tal como las usa auth-service.
+ * "cacheado" mide el camino con la caché de tokens verificados;
+ * "sinCache" alterna dos tokens sobre una caché de una entrada, así cada
+ * llamada paga el parseo y la verificación HMAC completos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String RUT = "11111111-1";
+    private static final String MAIL = "user@example.com";
+    private static final int ROL = 1;
+    private static final String SECRETO = "mil-sabores-super-secreto-para-jwt-2025-con-bastantes-caracteres";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil jwtUtilSinCache;
+    private String token;
+    private String[] tokensAlternados;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil(SECRETO, 10_000, new SimpleMeterRegistry());
+        jwtUtilSinCache = new JwtUtil(SECRETO, 1, new SimpleMeterRegistry());
+        token = jwtUtil.generateToken(RUT, MAIL, ROL);
+        tokensAlternados = new String[] {
+                jwtUtil.generateToken(RUT, MAIL, ROL),
+                jwtUtil.generateToken("22222222-2", "otro@example.com", ROL)
+        };
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(RUT, MAIL, ROL);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCacheado() {
+        return jwtUtil.isTokenValid(token, RUT);
+    }
+
+    @Benchmark
+    public boolean isTokenValidSinCache() {
+        siguiente ^= 1;
+        return jwtUtilSinCache.isTokenValid(tokensAlternados[siguiente], RUT);
+    }
+}
@@ -0,0 +1,78 @@
+package cl.milsabores.benchmarks;
+
+import cl.milsabores.authservice.dto.UsuarioResponseDto;
+import cl.milsabores.productservice.model.Producto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las respuestas más frecuentes: el login
+ * (UsuarioResponseDto) y el listado completo del catálogo a distintos tamaños.
+ * Se usa el mismo ObjectMapper base que arma Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private static final String[] CATEGORIAS = {"Tortas", "Pasteles", "Galletas", "Panes", "Postres"};
+
+    @State(Scope.Benchmark)
+    public static class Login {
+        ObjectMapper mapper;
+        UsuarioResponseDto respuesta;
+
+        @Setup
+        public void preparar() {
+            mapper = Jackson2ObjectMapperBuilder.json().build();
+            respuesta = new UsuarioResponseDto("11111111-1", "user@example.com",
+                    "eyJhbGciOiJIUzI1NiJ9.eyJlbWFpbCI6InVzZXJAZXhhbXBsZS5jb20iLCJzdWIiOiIxMTExMTExMS0xIn0."
+                            + "c2lnbmF0dXJhLWRlLWVqZW1wbG8tcGFyYS1lbC1iZW5jaG1hcms");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalogo {
+        @Param({"100", "1000", "10000", "100000"})
+        public int productos;
+
+        ObjectMapper mapper;
+        List<Producto> lista;
+
+        @Setup
+        public void preparar() {
+            mapper = Jackson2ObjectMapperBuilder.json().build();
+            lista = new ArrayList<>(productos);
+            for (int i = 0; i < productos; i++) {
+                lista.add(Producto.builder()
+                        .id((long) i + 1)
+                        .nombre("Producto " + i)
+                        .descripcion("Descripción del producto número " + i + " del catálogo Mil Sabores")
+                        .precio(BigDecimal.valueOf(1_000 + (i % 50) * 500L))
+                        .categoria(CATEGORIAS[i % CATEGORIAS.length])
+                        .disponible(i % 7 != 0)
+                        .urlImagen("https://cdn.milsabores.cl/productos/" + i + ".jpg")
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] usuarioResponse(Login estado) throws JsonProcessingException {
+        return estado.mapper.writeValueAsBytes(estado.respuesta);
+    }
+
+    @Benchmark
+    public byte[] listaProductos(Catalogo estado) throws JsonProcessingException {
+        return estado.mapper.writeValueAsBytes(estado.lista);
+    }
+}
@@ -0,0 +1,22 @@
+package cl.milsabores.dbcomun.config;
+
+import cl.milsabores.dbcomun.controller.ErroresBaseDatosAdvice;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Registra en cada servicio que depende de db-comun el bulkhead de conexiones, las
+ * estadísticas de SQL y el 503 de base saturada (los paquetes del servicio no incluyen
+ * cl.milsabores.dbcomun, así que el escaneo de componentes no los encuentra). Cada pieza
+ * mantiene su propia propiedad para desactivarla.
+ */
+@AutoConfiguration
+@Import({
+        LimiteConexionesBaseDatos.class,
+        EstadisticasSql.class,
+        InstrumentacionJdbc.class,
+        FiltroEstadisticasSql.class,
+        ErroresBaseDatosAdvice.class
+})
+public class BaseDatosComunAutoConfiguration {
+}
@@ -0,0 +1,131 @@
+package cl.milsabores.dbcomun.config;
+
+import cl.milsabores.dbcomun.exception.BaseDatosSaturadaException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead delante de un pool de conexiones: cada conexión ocupa un permiso desde
+ * getConnection() hasta close(), y hay tantos permisos como conexiones tiene el pool.
+ * Sin permiso libre se espera como máximo {@code esperaMs} en una cola de a lo más
+ * {@code colaMax} hilos; si no, {@link BaseDatosSaturadaException} de inmediato en vez
+ * de esperar el connection-timeout de Hikari.
+ */
+public class DataSourceConLimite extends DelegatingDataSource {
+
+    private static final String MENSAJE_SATURADA = "Base de datos saturada, intenta nuevamente en unos segundos";
+
+    private final Semaphore permisos;
+    private final int cantidadPermisos;
+    private final int colaMax;
+    private final long esperaMs;
+
+    private final AtomicInteger esperando = new AtomicInteger();
+    private final AtomicLong rechazos = new AtomicLong();
+
+    public DataSourceConLimite(DataSource pool, int cantidadPermisos, int colaMax, long esperaMs) {
+        super(pool);
+        this.permisos = new Semaphore(cantidadPermisos, true);
+        this.cantidadPermisos = cantidadPermisos;
+        this.colaMax = colaMax;
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        entrar();
+        try {
+            return conPermiso(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        entrar();
+        try {
+            return conPermiso(super.getConnection(usuario, clave));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    // ============================
+    // MÉTRICAS
+    // ============================
+    public int enUso() {
+        return cantidadPermisos - permisos.availablePermits();
+    }
+
+    public int esperando() {
+        return esperando.get();
+    }
+
+    public long rechazos() {
+        return rechazos.get();
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void entrar() throws SQLException {
+        if (permisos.tryAcquire()) {
+            return;
+        }
+        if (esperando.incrementAndGet() > colaMax) {
+            esperando.decrementAndGet();
+            rechazar();
+        }
+        try {
+            if (!permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                rechazar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        } finally {
+            esperando.decrementAndGet();
+        }
+    }
+
+    private void rechazar() throws BaseDatosSaturadaException {
+        rechazos.incrementAndGet();
+        throw new BaseDatosSaturadaException(MENSAJE_SATURADA);
+    }
+
+    // El permiso se devuelve una sola vez, aunque close() se llame de nuevo
+    private Connection conPermiso(Connection conexion) {
+        AtomicBoolean devuelto = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("close") && devuelto.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexion, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,122 @@
+package cl.milsabores.dbcomun.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Mide cada sentencia JDBC (tiempo de execute*, y filas leídas con next()) y se lo
+ * informa a {@link EstadisticasSql}. Envuelve conexiones, sentencias y resultados con
+ * proxies; el SQL de las PreparedStatement se toma al prepararlas (sin parámetros).
+ */
+public class DataSourceInstrumentado extends DelegatingDataSource {
+
+    private final EstadisticasSql estadisticas;
+
+    public DataSourceInstrumentado(DataSource pool, EstadisticasSql estadisticas) {
+        super(pool);
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        return conexion(super.getConnection(usuario, clave));
+    }
+
+    // ============================
+    // PROXIES
+    // ============================
+    private Connection conexion(Connection real) {
+        return proxy(Connection.class, real, (metodo, args) -> {
+            Object resultado = invocar(real, metodo, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+            if (resultado instanceof CallableStatement sentencia) {
+                return sentencia(CallableStatement.class, sentencia, sql);
+            }
+            if (resultado instanceof PreparedStatement sentencia) {
+                return sentencia(PreparedStatement.class, sentencia, sql);
+            }
+            if (resultado instanceof Statement sentencia) {
+                return sentencia(Statement.class, sentencia, null);
+            }
+            return resultado;
+        });
+    }
+
+    private <T extends Statement> T sentencia(Class<T> tipo, T real, String sqlPreparado) {
+        return proxy(tipo, real, (metodo, args) -> {
+            if (!metodo.getName().startsWith("execute")) {
+                Object resultado = invocar(real, metodo, args);
+                return resultado instanceof ResultSet filas && metodo.getName().equals("getResultSet")
+                        ? resultados(filas)
+                        : resultado;
+            }
+            // Statement.execute(sql): el SQL viene como argumento; PreparedStatement.execute(): el preparado
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+            long inicio = System.nanoTime();
+            try {
+                Object resultado = invocar(real, metodo, args);
+                return resultado instanceof ResultSet filas ? resultados(filas) : resultado;
+            } finally {
+                estadisticas.sentenciaEjecutada(sql, System.nanoTime() - inicio);
+            }
+        });
+    }
+
+    private ResultSet resultados(ResultSet real) {
+        return proxy(ResultSet.class, real, (metodo, args) -> {
+            Object resultado = invocar(real, metodo, args);
+            if (Boolean.TRUE.equals(resultado) && metodo.getName().equals("next")) {
+                estadisticas.filaLeida();
+            }
+            return resultado;
+        });
+    }
+
+    private interface Manejador {
+        Object invocar(Method metodo, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> tipo, Object real, Manejador manejador) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            // Identidad del proxy: Hibernate guarda sentencias y resultados en mapas
+            switch (metodo.getName()) {
+                case "equals":
+                    if (metodo.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (metodo.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return manejador.invocar(metodo, args);
+        }));
+    }
+
+    private static Object invocar(Object real, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(real, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
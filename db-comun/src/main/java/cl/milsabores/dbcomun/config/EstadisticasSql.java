@@ -0,0 +1,227 @@
+package cl.milsabores.dbcomun.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Estadísticas de SQL en reemplazo de spring.jpa.show-sql: tiempo por sentencia y, por
+ * endpoint (method + uri), sentencias, filas leídas y tiempo de base de cada request.
+ * Marca las requests con más de {@code sentenciasMax} sentencias o con una misma sentencia
+ * repetida {@code repeticionesMax} veces (N+1) y deja un log muestreado de las lentas.
+ * <p>
+ * Las mediciones llegan desde {@link DataSourceInstrumentado}; lo acumulado por request vive
+ * en un ThreadLocal que abre y cierra {@link FiltroEstadisticasSql}. Las sentencias fuera de
+ * una request (recargas programadas, arranque) solo cuentan en las métricas por sentencia.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+public class EstadisticasSql {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasSql.class);
+
+    private static final List<String> TIPOS = List.of("select", "insert", "update", "delete", "other");
+    // Sentencias distintas que se siguen por request para detectar N+1
+    private static final int SENTENCIAS_DISTINTAS_MAX = 200;
+    private static final int LARGO_SQL_LOG = 300;
+
+    private final MeterRegistry registry;
+    private final int sentenciasMax;
+    private final int repeticionesMax;
+    private final long lentaNanos;
+    private final long intervaloLogNanos;
+
+    private final Map<String, Timer> tiempos = new HashMap<>();
+    private final Map<String, Counter> lentas = new HashMap<>();
+    private final ThreadLocal<Solicitud> actual = new ThreadLocal<>();
+
+    // Log muestreado: a lo más una línea por intervalo, contando las omitidas
+    private final AtomicLong proximoLog = new AtomicLong(System.nanoTime());
+    private final AtomicLong omitidos = new AtomicLong();
+
+    public EstadisticasSql(MeterRegistry registry,
+                           @Value("${sql.alerta.sentencias-max:20}") int sentenciasMax,
+                           @Value("${sql.alerta.repeticiones-max:5}") int repeticionesMax,
+                           @Value("${sql.lenta-ms:200}") long lentaMs,
+                           @Value("${sql.log.intervalo-ms:1000}") long intervaloLogMs) {
+        this.registry = registry;
+        this.sentenciasMax = sentenciasMax;
+        this.repeticionesMax = repeticionesMax;
+        this.lentaNanos = TimeUnit.MILLISECONDS.toNanos(lentaMs);
+        this.intervaloLogNanos = TimeUnit.MILLISECONDS.toNanos(intervaloLogMs);
+        for (String tipo : TIPOS) {
+            tiempos.put(tipo, Timer.builder("sql.statements")
+                    .description("Tiempo de ejecución de cada sentencia JDBC")
+                    .tag("type", tipo)
+                    .register(registry));
+            lentas.put(tipo, Counter.builder("sql.statements.slow")
+                    .description("Sentencias que superaron sql.lenta-ms")
+                    .tag("type", tipo)
+                    .register(registry));
+        }
+    }
+
+    // ============================
+    // REQUEST
+    // ============================
+    public void iniciar(HttpServletRequest request) {
+        actual.set(new Solicitud(request));
+    }
+
+    public void terminar(HttpServletRequest request) {
+        Solicitud solicitud = actual.get();
+        actual.remove();
+        // Las requests que no tocan la base (catálogo en memoria) no generan series
+        if (solicitud == null || solicitud.sentencias == 0) {
+            return;
+        }
+        String endpoint = endpoint(request);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", endpoint);
+        DistributionSummary.builder("sql.request.statements")
+                .description("Sentencias JDBC por request")
+                .tags(tags)
+                .register(registry)
+                .record(solicitud.sentencias);
+        DistributionSummary.builder("sql.request.rows")
+                .description("Filas leídas por request")
+                .tags(tags)
+                .register(registry)
+                .record(solicitud.filas);
+        Timer.builder("sql.request.time")
+                .description("Tiempo total en sentencias JDBC por request")
+                .tags(tags)
+                .register(registry)
+                .record(solicitud.nanos, TimeUnit.NANOSECONDS);
+
+        if (solicitud.sentencias > sentenciasMax) {
+            marcar(tags, "statements");
+            loguear(() -> "[SQL] " + request.getMethod() + " " + endpoint + " ejecutó " + solicitud.sentencias
+                    + " sentencias (máximo " + sentenciasMax + ")");
+        }
+        Map.Entry<String, Integer> masRepetida = solicitud.masRepetida();
+        if (masRepetida != null && masRepetida.getValue() >= repeticionesMax) {
+            marcar(tags, "n+1");
+            loguear(() -> "[SQL] Posible N+1 en " + request.getMethod() + " " + endpoint + ": "
+                    + masRepetida.getValue() + " veces " + recortar(masRepetida.getKey()));
+        }
+    }
+
+    // ============================
+    // SENTENCIAS (desde DataSourceInstrumentado)
+    // ============================
+    void sentenciaEjecutada(String sql, long nanos) {
+        String tipo = tipo(sql);
+        tiempos.get(tipo).record(nanos, TimeUnit.NANOSECONDS);
+        Solicitud solicitud = actual.get();
+        if (solicitud != null) {
+            solicitud.agregar(sql, nanos);
+        }
+        if (nanos >= lentaNanos) {
+            lentas.get(tipo).increment();
+            loguear(() -> "[SQL] Lenta (" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms)"
+                    + (solicitud != null ? " en " + solicitud.request.getMethod() + " " + endpoint(solicitud.request) : "")
+                    + ": " + recortar(sql));
+        }
+    }
+
+    void filaLeida() {
+        Solicitud solicitud = actual.get();
+        if (solicitud != null) {
+            solicitud.filas++;
+        }
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void marcar(Tags tags, String motivo) {
+        Counter.builder("sql.request.flagged")
+                .description("Requests con demasiadas sentencias o con una sentencia repetida (N+1)")
+                .tags(tags.and("reason", motivo))
+                .register(registry)
+                .increment();
+    }
+
+    private void loguear(Supplier<String> mensaje) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        long proximo = proximoLog.get();
+        if (ahora - proximo < 0 || !proximoLog.compareAndSet(proximo, ahora + intervaloLogNanos)) {
+            omitidos.incrementAndGet();
+            return;
+        }
+        long omitidas = omitidos.getAndSet(0);
+        log.warn("{}{}", mensaje.get(), omitidas > 0 ? " (+" + omitidas + " líneas omitidas)" : "");
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? patron.toString() : "UNKNOWN";
+    }
+
+    static String tipo(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String inicio = sql.stripLeading();
+        inicio = inicio.substring(0, Math.min(6, inicio.length())).toLowerCase(Locale.ROOT);
+        return TIPOS.contains(inicio) ? inicio : "other";
+    }
+
+    private static String recortar(String sql) {
+        if (sql == null) {
+            return "(batch)";
+        }
+        String linea = sql.replaceAll("\\s+", " ").trim();
+        return linea.length() <= LARGO_SQL_LOG ? linea : linea.substring(0, LARGO_SQL_LOG) + "...";
+    }
+
+    private static final class Solicitud {
+        final HttpServletRequest request;
+        int sentencias;
+        long filas;
+        long nanos;
+        final Map<String, Integer> repeticiones = new HashMap<>();
+
+        Solicitud(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        void agregar(String sql, long duracion) {
+            sentencias++;
+            nanos += duracion;
+            if (sql != null && (repeticiones.size() < SENTENCIAS_DISTINTAS_MAX || repeticiones.containsKey(sql))) {
+                repeticiones.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        Map.Entry<String, Integer> masRepetida() {
+            Map.Entry<String, Integer> mayor = null;
+            for (Map.Entry<String, Integer> entrada : repeticiones.entrySet()) {
+                if (mayor == null || entrada.getValue() > mayor.getValue()) {
+                    mayor = entrada;
+                }
+            }
+            return mayor;
+        }
+    }
+}
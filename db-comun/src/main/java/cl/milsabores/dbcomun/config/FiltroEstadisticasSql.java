@@ -0,0 +1,36 @@
+package cl.milsabores.dbcomun.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Abre y cierra el acumulado de {@link EstadisticasSql} de cada request.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+public class FiltroEstadisticasSql extends OncePerRequestFilter {
+
+    private final EstadisticasSql estadisticas;
+
+    public FiltroEstadisticasSql(EstadisticasSql estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        estadisticas.iniciar(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            estadisticas.terminar(request);
+        }
+    }
+}
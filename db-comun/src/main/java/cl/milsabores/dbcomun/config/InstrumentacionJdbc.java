@@ -0,0 +1,39 @@
+package cl.milsabores.dbcomun.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve cada pool (ya limitado por el bulkhead, si está activo) en un
+ * {@link DataSourceInstrumentado}, así todo el acceso JDBC (repositorios, JdbcTemplate)
+ * queda medido. Se desactiva con sql.estadisticas.habilitado=false.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+public class InstrumentacionJdbc implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<EstadisticasSql> estadisticas;
+
+    public InstrumentacionJdbc(ObjectProvider<EstadisticasSql> estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public int getOrder() {
+        return 10;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombre) {
+        if (bean instanceof HikariDataSource || bean instanceof DataSourceConLimite) {
+            return new DataSourceInstrumentado((DataSource) bean, estadisticas.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,66 @@
+package cl.milsabores.dbcomun.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envuelve cada pool Hikari en un {@link DataSourceConLimite} con tantos permisos como
+ * conexiones tiene el pool, así el trabajo concurrente contra la base queda acotado
+ * aunque haya cientos de solicitudes (o hilos virtuales) en curso.
+ * Se desactiva con db.bulkhead.habilitado=false.
+ */
+@Component
+@ConditionalOnProperty(name = "db.bulkhead.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteConexionesBaseDatos implements BeanPostProcessor, Ordered {
+
+    private final int colaMax;
+    private final long esperaMs;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public LimiteConexionesBaseDatos(@Value("${db.bulkhead.cola-max:50}") int colaMax,
+                                     @Value("${db.bulkhead.espera-ms:250}") long esperaMs,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        this.colaMax = colaMax;
+        this.esperaMs = esperaMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Antes que InstrumentacionJdbc, que envuelve el resultado
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombre) {
+        if (!(bean instanceof HikariDataSource pool)) {
+            return bean;
+        }
+        DataSourceConLimite limitado = new DataSourceConLimite(pool, pool.getMaximumPoolSize(), colaMax, esperaMs);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            String nombrePool = pool.getPoolName() != null ? pool.getPoolName() : nombre;
+            Gauge.builder("db.bulkhead.active", limitado, DataSourceConLimite::enUso)
+                    .description("Conexiones en uso a través del bulkhead")
+                    .tag("pool", nombrePool)
+                    .register(registry);
+            Gauge.builder("db.bulkhead.waiting", limitado, DataSourceConLimite::esperando)
+                    .description("Hilos esperando un permiso del bulkhead")
+                    .tag("pool", nombrePool)
+                    .register(registry);
+            FunctionCounter.builder("db.bulkhead.rejected", limitado, DataSourceConLimite::rechazos)
+                    .description("Solicitudes rechazadas por el bulkhead (respondidas con 503)")
+                    .tag("pool", nombrePool)
+                    .register(registry);
+        }
+        return limitado;
+    }
+}
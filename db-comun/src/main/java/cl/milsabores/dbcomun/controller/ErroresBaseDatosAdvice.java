@@ -0,0 +1,34 @@
+package cl.milsabores.dbcomun.controller;
+
+import cl.milsabores.dbcomun.exception.BaseDatosSaturadaException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Sin conexión a la base (bulkhead lleno o base caída) se responde 503 con Retry-After,
+ * rápido y sin pasar por los catch de cada endpoint.
+ */
+@RestControllerAdvice
+public class ErroresBaseDatosAdvice {
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            JDBCConnectionException.class})
+    public ResponseEntity<String> sinConexion(Exception e) {
+        String mensaje = "Base de datos no disponible, intenta nuevamente en unos segundos";
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof BaseDatosSaturadaException saturada) {
+                mensaje = saturada.getMessage();
+                break;
+            }
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(mensaje);
+    }
+}
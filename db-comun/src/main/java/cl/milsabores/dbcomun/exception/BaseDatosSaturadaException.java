@@ -0,0 +1,15 @@
+package cl.milsabores.dbcomun.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No hubo una conexión libre dentro de la espera del bulkhead de base de datos
+ * ({@link cl.milsabores.dbcomun.config.DataSourceConLimite}). Llega envuelta en las
+ * excepciones de Spring/Hibernate de "no se pudo obtener conexión"; se responde 503.
+ */
+public class BaseDatosSaturadaException extends SQLTransientConnectionException {
+
+    public BaseDatosSaturadaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,59 @@
+package cl.milsabores.dbcomun.config;
+
+import cl.milsabores.dbcomun.exception.BaseDatosSaturadaException;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DataSourceConLimiteTest {
+
+    @Test
+    void rechazaSinPermisoYDevuelveElPermisoUnaSolaVez() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection fisica = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(fisica);
+        DataSourceConLimite limitado = new DataSourceConLimite(pool, 2, 10, 20);
+
+        Connection primera = limitado.getConnection();
+        Connection segunda = limitado.getConnection();
+        assertEquals(2, limitado.enUso());
+        assertThrows(BaseDatosSaturadaException.class, limitado::getConnection);
+        assertEquals(1, limitado.rechazos());
+
+        primera.close();
+        primera.close();
+        verify(fisica, atLeastOnce()).close();
+        assertEquals(1, limitado.enUso());
+
+        limitado.getConnection();
+        assertThrows(BaseDatosSaturadaException.class, limitado::getConnection);
+        segunda.close();
+        assertEquals(1, limitado.enUso());
+    }
+
+    @Test
+    void colaLlenaRechazaSinEsperar() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(i -> mock(Connection.class));
+        DataSourceConLimite limitado = new DataSourceConLimite(pool, 1, 0, 10_000);
+        limitado.getConnection();
+
+        long inicio = System.nanoTime();
+        assertThrows(BaseDatosSaturadaException.class, limitado::getConnection);
+        assertTrue(System.nanoTime() - inicio < 1_000_000_000L);
+    }
+
+    @Test
+    void devuelveElPermisoSiElPoolFalla() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new java.sql.SQLException("caída"));
+        DataSourceConLimite limitado = new DataSourceConLimite(pool, 1, 10, 10);
+
+        assertThrows(java.sql.SQLException.class, limitado::getConnection);
+        assertEquals(0, limitado.enUso());
+    }
+}
@@ -0,0 +1,64 @@
+package cl.milsabores.dbcomun.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EstadisticasSqlTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EstadisticasSql estadisticas = new EstadisticasSql(registry, 20, 5, 200, 1000);
+
+    @Test
+    void cuentaSentenciasYFilasPorEndpointYMarcaNMasUno() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        PreparedStatement sentencia = mock(PreparedStatement.class);
+        ResultSet filas = mock(ResultSet.class);
+        when(pool.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenReturn(sentencia);
+        when(sentencia.executeQuery()).thenReturn(filas);
+        // Dos filas por consulta
+        when(filas.next()).thenReturn(true, true, false, true, true, false, true, true, false,
+                true, true, false, true, true, false, true, true, false);
+        DataSource instrumentado = new DataSourceInstrumentado(pool, estadisticas);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/productos/{id}");
+        estadisticas.iniciar(request);
+        try (Connection c = instrumentado.getConnection()) {
+            for (int i = 0; i < 6; i++) {
+                try (PreparedStatement ps = c.prepareStatement("select * from usuario where rut=?");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        // lectura de la fila
+                    }
+                }
+            }
+        }
+        estadisticas.terminar(request);
+
+        assertEquals(6, registry.get("sql.request.statements").tag("uri", "/api/productos/{id}").summary().totalAmount());
+        assertEquals(12, registry.get("sql.request.rows").tag("method", "GET").summary().totalAmount());
+        assertEquals(1, registry.get("sql.request.flagged").tag("reason", "n+1").counter().count());
+        assertEquals(6, registry.get("sql.statements").tag("type", "select").timer().count());
+        // Fuera de una request solo se cuentan las métricas por sentencia
+        assertNull(registry.find("sql.request.flagged").tag("reason", "statements").counter());
+    }
+
+    @Test
+    void tipoDeSentencia() {
+        assertEquals("insert", EstadisticasSql.tipo("  INSERT into productos values (?)"));
+        assertEquals("other", EstadisticasSql.tipo("alter sequence productos_seq increment by 50"));
+        assertEquals("other", EstadisticasSql.tipo(null));
+    }
+}
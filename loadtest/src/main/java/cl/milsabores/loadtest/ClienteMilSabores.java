@@ -0,0 +1,139 @@
+package cl.milsabores.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arma y envía las solicitudes de cada {@link Operacion} contra los datos sembrados
+ * por el perfil embebido (clienteN@milsabores.test y productos 1..N).
+ */
+final class ClienteMilSabores {
+
+    private static final Duration TIEMPO_MAX_RESPUESTA = Duration.ofSeconds(30);
+    private static final List<String> ORDENES = List.of("id", "nombre", "precio");
+    private static final List<String> TERMINOS = List.of(
+            "chocolate", "frutilla", "manjar", "tres leches", "vainilla", "limon", "frambuesa", "nuez", "torta");
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String authUrl;
+    private final String productosUrl;
+    private final int usuarios;
+    private final int productos;
+    private final String password;
+
+    // Registros únicos entre corridas contra los mismos servicios
+    private final String corrida = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong registros = new AtomicLong();
+
+    private volatile String token;
+
+    ClienteMilSabores(HttpClient http, String authUrl, String productosUrl, int usuarios, int productos, String password) {
+        this.http = http;
+        this.authUrl = authUrl;
+        this.productosUrl = productosUrl;
+        this.usuarios = usuarios;
+        this.productos = productos;
+        this.password = password;
+    }
+
+    /**
+     * Token del usuario de personal sembrado: product-service rechaza escrituras con rol cliente.
+     */
+    void autenticar() throws IOException, InterruptedException {
+        ObjectNode admin = json.createObjectNode()
+                .put("mail", "admin@milsabores.test")
+                .put("password", password);
+        HttpResponse<String> respuesta = http.send(
+                post(authUrl + "/auth/login", admin).build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("No se pudo iniciar sesión con admin@milsabores.test ("
+                    + respuesta.statusCode() + "): " + respuesta.body());
+        }
+        JsonNode cuerpo = json.readTree(respuesta.body());
+        token = cuerpo.path("token").asText();
+    }
+
+    /**
+     * @return código HTTP de la respuesta (el cuerpo se lee completo y se descarta)
+     */
+    int enviar(Operacion operacion) throws IOException, InterruptedException {
+        return http.send(solicitud(operacion), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // ============================
+    // SOLICITUDES
+    // ============================
+    private HttpRequest solicitud(Operacion operacion) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        return switch (operacion) {
+            case LOGIN -> post(authUrl + "/auth/login", login(1 + azar.nextInt(usuarios))).build();
+            case REGISTRO -> post(authUrl + "/auth/register", registro()).build();
+            case LISTAR -> get(productosUrl + "/api/productos?tamano=20&orden=" + elegir(ORDENES, azar));
+            case DETALLE -> get(productosUrl + "/api/productos/" + (1 + azar.nextInt(productos)));
+            case BUSCAR -> get(productosUrl + "/api/productos/search?q="
+                    + elegir(TERMINOS, azar).replace(" ", "%20"));
+            case ACTUALIZAR -> conToken(HttpRequest.newBuilder(URI.create(productosUrl + "/api/productos/"
+                            + (1 + azar.nextInt(productos))))
+                    .method("PATCH", cuerpo(json.createObjectNode().put("precio", 1_000 + azar.nextInt(50) * 500)))
+                    .header("Content-Type", "application/json"));
+            case CREAR -> conToken(post(productosUrl + "/api/productos", json.createObjectNode()
+                    .put("nombre", "Producto de carga " + corrida + "-" + registros.incrementAndGet())
+                    .put("descripcion", "Creado por la prueba de carga")
+                    .put("precio", 1_000 + azar.nextInt(50) * 500)
+                    .put("categoria", "Tortas Especiales")
+                    .put("disponible", true)));
+        };
+    }
+
+    private ObjectNode login(int usuario) {
+        return json.createObjectNode()
+                .put("mail", "cliente" + usuario + "@milsabores.test")
+                .put("password", password);
+    }
+
+    private ObjectNode registro() {
+        long numero = registros.incrementAndGet();
+        return json.createObjectNode()
+                .put("rut", corrida + "-" + numero)
+                .put("nombre", "Cliente de carga " + numero)
+                .put("mail", "carga-" + corrida + "-" + numero + "@milsabores.test")
+                .put("password", password)
+                .put("idrol", 1)
+                .put("fechaNac", "10-05-2000");
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIEMPO_MAX_RESPUESTA).GET().build();
+    }
+
+    private HttpRequest.Builder post(String url, ObjectNode cuerpo) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIEMPO_MAX_RESPUESTA)
+                .header("Content-Type", "application/json")
+                .POST(cuerpo(cuerpo));
+    }
+
+    private HttpRequest conToken(HttpRequest.Builder solicitud) {
+        return solicitud.timeout(TIEMPO_MAX_RESPUESTA).header("Authorization", "Bearer " + token).build();
+    }
+
+    private HttpRequest.BodyPublisher cuerpo(ObjectNode cuerpo) {
+        return HttpRequest.BodyPublishers.ofString(cuerpo.toString());
+    }
+
+    private static String elegir(List<String> opciones, ThreadLocalRandom azar) {
+        return opciones.get(azar.nextInt(opciones.size()));
+    }
+}
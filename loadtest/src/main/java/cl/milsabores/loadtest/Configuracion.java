@@ -0,0 +1,80 @@
+package cl.milsabores.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * carga.properties con los -Dcarga.* de la línea de comando encima.
+ */
+final class Configuracion {
+
+    private static final String PREFIJO = "carga.";
+
+    private final Properties propiedades;
+
+    private Configuracion(Properties propiedades) {
+        this.propiedades = propiedades;
+    }
+
+    static Configuracion cargar() throws IOException {
+        Properties propiedades = new Properties();
+        try (InputStream entrada = Configuracion.class.getResourceAsStream("/carga.properties")) {
+            if (entrada == null) {
+                throw new IOException("No se encontró carga.properties en el classpath");
+            }
+            propiedades.load(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        }
+        for (String nombre : System.getProperties().stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO)) {
+                propiedades.setProperty(nombre, System.getProperty(nombre));
+            }
+        }
+        return new Configuracion(propiedades);
+    }
+
+    String texto(String clave) {
+        String valor = propiedades.getProperty(PREFIJO + clave);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta la propiedad " + PREFIJO + clave);
+        }
+        return valor.trim();
+    }
+
+    String texto(String clave, String defecto) {
+        String valor = propiedades.getProperty(PREFIJO + clave);
+        return valor != null ? valor.trim() : defecto;
+    }
+
+    int entero(String clave) {
+        return Integer.parseInt(texto(clave));
+    }
+
+    double decimal(String clave) {
+        return Double.parseDouble(texto(clave));
+    }
+
+    boolean booleano(String clave) {
+        return Boolean.parseBoolean(texto(clave));
+    }
+
+    List<String> lista(String clave, String separador) {
+        String valor = texto(clave, "");
+        if (valor.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(valor.split(separador))
+                .map(String::trim)
+                .filter(parte -> !parte.isEmpty())
+                .toList();
+    }
+
+    Double decimalOpcional(String clave) {
+        String valor = texto(clave, "");
+        return valor.isEmpty() ? null : Double.valueOf(valor);
+    }
+}
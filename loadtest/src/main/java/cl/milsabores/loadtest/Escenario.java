@@ -0,0 +1,126 @@
+package cl.milsabores.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Una carga de duración fija: {@code hilos} clientes concurrentes que eligen cada
+ * operación al azar según la mezcla.
+ * <p>
+ * Con tasa 0 es un lazo cerrado (cada hilo envía la siguiente solicitud apenas recibe la
+ * respuesta). Con tasa &gt; 0 cada hilo tiene una agenda fija de envíos y la latencia se
+ * mide desde el instante agendado: si el servidor se atrasa, el atraso queda en la latencia
+ * en vez de bajar la carga.
+ *
+ * @param ruleta operaciones repetidas según su peso; se elige una posición al azar
+ */
+record Escenario(String nombre, Duration duracion, int hilos, double tasa, List<Operacion> ruleta) {
+
+    static Escenario desde(Configuracion configuracion, String nombre) {
+        String base = "escenario." + nombre + ".";
+        List<Operacion> ruleta = new ArrayList<>();
+        for (String parte : configuracion.lista(base + "mezcla", ",")) {
+            String[] operacionYPeso = parte.split(":");
+            Operacion operacion = Operacion.desdeClave(operacionYPeso[0].trim());
+            int peso = operacionYPeso.length > 1 ? Integer.parseInt(operacionYPeso[1].trim()) : 1;
+            for (int i = 0; i < peso; i++) {
+                ruleta.add(operacion);
+            }
+        }
+        if (ruleta.isEmpty()) {
+            throw new IllegalArgumentException("El escenario " + nombre + " no tiene operaciones (" + base + "mezcla)");
+        }
+        return new Escenario(nombre,
+                Duration.ofSeconds(configuracion.entero(base + "duracion-s")),
+                configuracion.entero(base + "hilos"),
+                configuracion.decimal(base + "tasa"),
+                List.copyOf(ruleta));
+    }
+
+    Escenario conDuracion(Duration otra) {
+        return new Escenario(nombre, otra, hilos, tasa, ruleta);
+    }
+
+    /**
+     * @return latencias por operación y duración real (en nanos) para calcular el throughput
+     */
+    Resultado ejecutar(ClienteMilSabores cliente) throws InterruptedException {
+        Latencias latencias = new Latencias();
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion.toNanos();
+        // Entre envíos de un mismo hilo, para que entre todos sumen la tasa objetivo
+        long intervalo = tasa > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * hilos / tasa) : 0;
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>(hilos);
+            for (int i = 0; i < hilos; i++) {
+                // Agendas desfasadas para no enviar todos en el mismo instante
+                long primerEnvio = inicio + (intervalo * i) / hilos;
+                tareas.add(ejecutor.submit(() -> {
+                    cargar(cliente, latencias, primerEnvio, fin, intervalo);
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Falló un hilo del escenario " + nombre, e.getCause());
+                }
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        return new Resultado(this, latencias, System.nanoTime() - inicio);
+    }
+
+    private void cargar(ClienteMilSabores cliente, Latencias latencias, long primerEnvio, long fin, long intervalo)
+            throws InterruptedException {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long agendado = primerEnvio;
+        while (true) {
+            long desde;
+            if (intervalo > 0) {
+                if (agendado >= fin) {
+                    return;
+                }
+                long espera = agendado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                desde = agendado;
+                agendado += intervalo;
+            } else {
+                desde = System.nanoTime();
+                if (desde >= fin) {
+                    return;
+                }
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            Operacion operacion = ruleta.get(azar.nextInt(ruleta.size()));
+            int estado;
+            try {
+                estado = cliente.enviar(operacion);
+            } catch (IOException e) {
+                estado = -1;
+            }
+            latencias.registrar(operacion, System.nanoTime() - desde, estado);
+        }
+    }
+
+    record Resultado(Escenario escenario, Latencias latencias, long duracionNanos) {
+    }
+}
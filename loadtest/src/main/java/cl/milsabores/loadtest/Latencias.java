@@ -0,0 +1,75 @@
+package cl.milsabores.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencias y errores de un escenario, por operación. Se guardan todas las muestras
+ * (un long por solicitud) y los percentiles se calculan exactos al final.
+ */
+final class Latencias {
+
+    private final Map<Operacion, Muestras> porOperacion = new EnumMap<>(Operacion.class);
+
+    Latencias() {
+        for (Operacion operacion : Operacion.values()) {
+            porOperacion.put(operacion, new Muestras());
+        }
+    }
+
+    /**
+     * @param estado código HTTP, o -1 si no hubo respuesta
+     */
+    void registrar(Operacion operacion, long nanos, int estado) {
+        porOperacion.get(operacion).agregar(nanos, estado < 200 || estado >= 400);
+    }
+
+    /**
+     * @return null si la operación no se ejecutó en el escenario
+     */
+    Resumen resumen(Operacion operacion, long duracionNanos) {
+        return porOperacion.get(operacion).resumen(duracionNanos);
+    }
+
+    record Resumen(long solicitudes, long errores, double porSegundo,
+                   double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        double tasaErrores() {
+            return solicitudes == 0 ? 0 : (double) errores / solicitudes;
+        }
+    }
+
+    private static final class Muestras {
+        private long[] nanos = new long[4096];
+        private int cantidad;
+        private long errores;
+
+        synchronized void agregar(long duracion, boolean error) {
+            if (cantidad == nanos.length) {
+                nanos = Arrays.copyOf(nanos, nanos.length * 2);
+            }
+            nanos[cantidad++] = duracion;
+            if (error) {
+                errores++;
+            }
+        }
+
+        synchronized Resumen resumen(long duracionNanos) {
+            if (cantidad == 0) {
+                return null;
+            }
+            long[] ordenadas = Arrays.copyOf(nanos, cantidad);
+            Arrays.sort(ordenadas);
+            return new Resumen(cantidad, errores, cantidad * 1e9 / duracionNanos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+                    ordenadas[cantidad - 1] / 1e6);
+        }
+
+        // Rango más cercano: el menor valor con al menos p de las muestras a su izquierda (inclusive)
+        private static double percentil(long[] ordenadas, double p) {
+            int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, indice)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package cl.milsabores.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tiempo hasta la primera respuesta de cada servicio en cada modo de arranque: desde que se
+ * lanza la JVM hasta que un endpoint de negocio responde (sin datos sembrados, perfil embebido).
+ * <ul>
+ *     <li>{@code jar}: el -exec.jar como se despliega hoy.</li>
+ *     <li>{@code aot}: el jar normal con target/lib y -Dspring.aot.enabled=true.</li>
+ *     <li>{@code aot-cds}: lo anterior más el archivo CDS de la corrida de entrenamiento.</li>
+ * </ul>
+ * Los modos aot requieren construir los servicios con -Paot. Cada arranque corre solo (sin
+ * otro servicio en paralelo) y se repite {@code carga.arranque.repeticiones} veces.
+ * <p>
+ * mvn -Paot,arranque -DskipTests verify (desde la raíz).
+ */
+public final class MedicionArranque {
+
+    private static final Duration PAUSA_CONSULTA = Duration.ofMillis(10);
+
+    private MedicionArranque() {
+    }
+
+    private record Servicio(String nombre, String clave, String semilla) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracion configuracion = Configuracion.cargar();
+        Path salida = Path.of(configuracion.texto("salida", "target/carga")).resolve("arranque");
+        Files.createDirectories(salida);
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        List<String> modos = configuracion.lista("arranque.modos", ",");
+        int repeticiones = configuracion.entero("arranque.repeticiones");
+        int puerto = configuracion.entero("arranque.puerto");
+        Duration maximo = Duration.ofSeconds(configuracion.entero("espera-inicio-s"));
+        List<String> jvm = configuracion.lista("jvm-servicios", "\\s+");
+
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode detalle = json.createObjectNode();
+        List<String> filas = new ArrayList<>();
+
+        for (Servicio servicio : List.of(
+                new Servicio("auth-service", "auth", "--embebido.semilla.usuarios=0"),
+                new Servicio("product-service", "productos", "--embebido.semilla.productos=0"))) {
+            String url = "http://localhost:" + puerto + configuracion.texto("arranque.url-" + servicio.clave());
+            ObjectNode nodoServicio = detalle.putObject(servicio.nombre());
+
+            for (String modo : modos) {
+                List<String> opciones = new ArrayList<>(jvm);
+                Path jar = jar(configuracion, servicio, modo, opciones);
+                long[] milis = new long[repeticiones];
+                for (int i = 0; i < repeticiones; i++) {
+                    String nombre = servicio.nombre() + "-" + modo + "-" + (i + 1);
+                    try (Servicios servicios = new Servicios(http, salida)) {
+                        long inicio = System.nanoTime();
+                        servicios.iniciar(nombre, jar, puerto, opciones, List.of(servicio.semilla()));
+                        servicios.esperar(nombre, url, maximo, PAUSA_CONSULTA);
+                        milis[i] = (System.nanoTime() - inicio) / 1_000_000;
+                    }
+                }
+                Arrays.sort(milis);
+                long mediana = milis[repeticiones / 2];
+                nodoServicio.putObject(modo)
+                        .put("minMs", milis[0])
+                        .put("medianaMs", mediana)
+                        .put("maxMs", milis[repeticiones - 1]);
+                filas.add(String.format(Locale.ROOT, "%-16s %-8s %9d %11d %9d",
+                        servicio.nombre(), modo, milis[0], mediana, milis[repeticiones - 1]));
+            }
+        }
+
+        Path archivo = salida.resolve("resultado.json");
+        json.writeValue(archivo.toFile(), detalle);
+        System.out.println();
+        System.out.println("== Tiempo hasta la primera respuesta (" + repeticiones + " arranques por modo)");
+        System.out.printf(Locale.ROOT, "%-16s %-8s %9s %11s %9s%n", "servicio", "modo", "min ms", "mediana ms", "máx ms");
+        filas.forEach(System.out::println);
+        System.out.println("[CARGA] Detalle: " + archivo);
+    }
+
+    /**
+     * Jar a lanzar en el modo, agregando a {@code opciones} las de la JVM que correspondan.
+     */
+    private static Path jar(Configuracion configuracion, Servicio servicio, String modo, List<String> opciones)
+            throws IOException {
+        if (modo.equals("jar")) {
+            return Path.of(configuracion.texto(servicio.clave() + "-jar"));
+        }
+        if (!modo.equals("aot") && !modo.equals("aot-cds")) {
+            throw new IllegalArgumentException("Modo de arranque desconocido: " + modo + " (jar, aot, aot-cds)");
+        }
+        Path jar = Path.of(configuracion.texto(servicio.clave() + "-jar-aot"));
+        if (!Files.isDirectory(jar.resolveSibling("lib"))) {
+            throw new IllegalStateException("No existe " + jar.resolveSibling("lib") + ": construir los servicios con -Paot");
+        }
+        if (modo.equals("aot-cds")) {
+            Path archivoCds = Path.of(configuracion.texto(servicio.clave() + "-cds"));
+            if (!Files.isRegularFile(archivoCds)) {
+                throw new IllegalStateException("No existe " + archivoCds + ": construir los servicios con -Paot");
+            }
+            opciones.add("-XX:SharedArchiveFile=" + archivoCds.toRealPath());
+        }
+        opciones.add("-Dspring.aot.enabled=true");
+        // CDS exige la misma ruta del jar que en la corrida de entrenamiento
+        return jar.toRealPath();
+    }
+}
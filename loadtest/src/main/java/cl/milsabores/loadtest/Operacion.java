@@ -0,0 +1,40 @@
+package cl.milsabores.loadtest;
+
+/**
+ * Operaciones que puede mezclar un escenario; cada una corresponde a un endpoint.
+ */
+enum Operacion {
+
+    LOGIN("login", "POST /auth/login"),
+    REGISTRO("registro", "POST /auth/register"),
+    LISTAR("listar", "GET /api/productos"),
+    DETALLE("detalle", "GET /api/productos/{id}"),
+    BUSCAR("buscar", "GET /api/productos/search"),
+    ACTUALIZAR("actualizar", "PATCH /api/productos/{id}"),
+    CREAR("crear", "POST /api/productos");
+
+    private final String clave;
+    private final String endpoint;
+
+    Operacion(String clave, String endpoint) {
+        this.clave = clave;
+        this.endpoint = endpoint;
+    }
+
+    String clave() {
+        return clave;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operacion desdeClave(String clave) {
+        for (Operacion operacion : values()) {
+            if (operacion.clave.equals(clave)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + clave);
+    }
+}
@@ -0,0 +1,84 @@
+package cl.milsabores.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prueba de carga reproducible y sin Oracle: levanta auth-service y product-service con el
+ * perfil embebido (H2 en modo Oracle con 100 mil usuarios y 50 mil productos), calienta,
+ * corre los escenarios de carga.properties e informa throughput y p50/p95/p99 por endpoint.
+ * Termina con error si algún endpoint excede su presupuesto, lo que hace fallar la build.
+ * <p>
+ * mvn -Pcarga -DskipTests verify (desde la raíz). Con -Dcarga.iniciar-servicios=false se
+ * usa carga.auth-url / carga.productos-url en vez de levantar los servicios.
+ */
+public final class PruebaCarga {
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracion configuracion = Configuracion.cargar();
+        Path salida = Path.of(configuracion.texto("salida", "target/carga"));
+        Files.createDirectories(salida);
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<String> excedidos;
+        try (Servicios servicios = new Servicios(http, salida)) {
+            String authUrl = configuracion.texto("auth-url");
+            String productosUrl = configuracion.texto("productos-url");
+            if (configuracion.booleano("iniciar-servicios")) {
+                authUrl = "http://localhost:" + configuracion.entero("auth-puerto");
+                productosUrl = "http://localhost:" + configuracion.entero("productos-puerto");
+                List<String> jvm = configuracion.lista("jvm-servicios", "\\s+");
+                servicios.iniciar("auth-service", Path.of(configuracion.texto("auth-jar")),
+                        configuracion.entero("auth-puerto"), jvm, configuracion.lista("args-auth", "\\s+"));
+                servicios.iniciar("product-service", Path.of(configuracion.texto("productos-jar")),
+                        configuracion.entero("productos-puerto"), jvm, configuracion.lista("args-productos", "\\s+"));
+                Duration espera = Duration.ofSeconds(configuracion.entero("espera-inicio-s"));
+                servicios.esperarDisponible("auth-service", authUrl, espera);
+                servicios.esperarDisponible("product-service", productosUrl, espera);
+            }
+
+            ClienteMilSabores cliente = new ClienteMilSabores(http, authUrl, productosUrl,
+                    configuracion.entero("usuarios"), configuracion.entero("productos"), configuracion.texto("password"));
+            cliente.autenticar();
+            excedidos = ejecutar(configuracion, cliente, salida);
+        }
+
+        if (!excedidos.isEmpty()) {
+            throw new IllegalStateException(excedidos.size() + " presupuesto(s) de la prueba de carga excedido(s)");
+        }
+    }
+
+    private static List<String> ejecutar(Configuracion configuracion, ClienteMilSabores cliente, Path salida)
+            throws Exception {
+        List<Escenario> escenarios = new ArrayList<>();
+        for (String nombre : configuracion.lista("escenarios", ",")) {
+            escenarios.add(Escenario.desde(configuracion, nombre));
+        }
+
+        int calentamiento = configuracion.entero("calentamiento.duracion-s");
+        if (calentamiento > 0) {
+            Escenario escenario = Escenario.desde(configuracion, configuracion.texto("calentamiento.escenario"))
+                    .conDuracion(Duration.ofSeconds(calentamiento));
+            System.out.println("[CARGA] Calentamiento: " + calentamiento + " s con la mezcla de " + escenario.nombre());
+            escenario.ejecutar(cliente);
+        }
+
+        Reporte reporte = new Reporte(configuracion);
+        for (Escenario escenario : escenarios) {
+            System.out.println("[CARGA] Escenario " + escenario.nombre() + " (" + escenario.duracion().toSeconds() + " s)");
+            reporte.agregar(escenario.ejecutar(cliente));
+        }
+        return reporte.cerrar(salida.resolve("resultado.json"));
+    }
+}
@@ -0,0 +1,108 @@
+package cl.milsabores.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tabla por escenario y endpoint (throughput, errores, p50/p95/p99/máx), el mismo
+ * detalle en JSON y la revisión de los presupuestos {@code carga.presupuesto.*}.
+ */
+final class Reporte {
+
+    private static final String FORMATO_FILA = "%-28s %9s %8s %9s %9s %9s %9s %9s%n";
+
+    private final Configuracion configuracion;
+    private final ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final ObjectNode detalle = json.createObjectNode();
+    private final List<String> excedidos = new ArrayList<>();
+
+    Reporte(Configuracion configuracion) {
+        this.configuracion = configuracion;
+    }
+
+    void agregar(Escenario.Resultado resultado) {
+        Escenario escenario = resultado.escenario();
+        System.out.println();
+        System.out.printf(Locale.ROOT, "== %s: %d hilos, %s, %d s%n", escenario.nombre(), escenario.hilos(),
+                escenario.tasa() > 0 ? "tasa " + escenario.tasa() + " req/s" : "lazo cerrado",
+                escenario.duracion().toSeconds());
+        System.out.printf(Locale.ROOT, FORMATO_FILA, "endpoint", "req", "errores", "req/s", "p50 ms", "p95 ms", "p99 ms", "máx ms");
+
+        ObjectNode nodoEscenario = detalle.putObject(escenario.nombre());
+        long total = 0;
+        for (Operacion operacion : Operacion.values()) {
+            Latencias.Resumen resumen = resultado.latencias().resumen(operacion, resultado.duracionNanos());
+            if (resumen == null) {
+                continue;
+            }
+            total += resumen.solicitudes();
+            System.out.printf(Locale.ROOT, FORMATO_FILA, operacion.endpoint(), resumen.solicitudes(), resumen.errores(),
+                    decimal(resumen.porSegundo()), decimal(resumen.p50Ms()), decimal(resumen.p95Ms()),
+                    decimal(resumen.p99Ms()), decimal(resumen.maxMs()));
+
+            nodoEscenario.putObject(operacion.endpoint())
+                    .put("solicitudes", resumen.solicitudes())
+                    .put("errores", resumen.errores())
+                    .put("porSegundo", resumen.porSegundo())
+                    .put("p50Ms", resumen.p50Ms())
+                    .put("p95Ms", resumen.p95Ms())
+                    .put("p99Ms", resumen.p99Ms())
+                    .put("maxMs", resumen.maxMs());
+            revisar(escenario, operacion, resumen);
+        }
+        System.out.printf(Locale.ROOT, "   total: %d solicitudes, %s req/s%n",
+                total, decimal(total * 1e9 / resultado.duracionNanos()));
+    }
+
+    /**
+     * @return presupuestos excedidos (vacío si todo cumple)
+     */
+    List<String> cerrar(Path archivo) throws IOException {
+        ArrayNode nodoExcedidos = detalle.putArray("presupuestosExcedidos");
+        excedidos.forEach(nodoExcedidos::add);
+        json.writeValue(archivo.toFile(), detalle);
+
+        System.out.println();
+        if (excedidos.isEmpty()) {
+            System.out.println("[CARGA] Todos los presupuestos se cumplen. Detalle: " + archivo);
+        } else {
+            System.out.println("[CARGA] Presupuestos excedidos:");
+            excedidos.forEach(excedido -> System.out.println("  - " + excedido));
+        }
+        return excedidos;
+    }
+
+    // ============================
+    // PRESUPUESTOS
+    // ============================
+    private void revisar(Escenario escenario, Operacion operacion, Latencias.Resumen resumen) {
+        String base = "presupuesto." + operacion.clave() + ".";
+        exceder(escenario, operacion, "p95", resumen.p95Ms(), configuracion.decimalOpcional(base + "p95-ms"));
+        exceder(escenario, operacion, "p99", resumen.p99Ms(), configuracion.decimalOpcional(base + "p99-ms"));
+
+        Double erroresMax = configuracion.decimalOpcional("presupuesto.errores-max");
+        if (erroresMax != null && resumen.tasaErrores() > erroresMax) {
+            excedidos.add(String.format(Locale.ROOT, "%s / %s: %.2f%% de errores (máximo %.2f%%)",
+                    escenario.nombre(), operacion.endpoint(), resumen.tasaErrores() * 100, erroresMax * 100));
+        }
+    }
+
+    private void exceder(Escenario escenario, Operacion operacion, String percentil, double medidoMs, Double maximoMs) {
+        if (maximoMs != null && medidoMs > maximoMs) {
+            excedidos.add(String.format(Locale.ROOT, "%s / %s: %s %.1f ms (máximo %.0f ms)",
+                    escenario.nombre(), operacion.endpoint(), percentil, medidoMs, maximoMs));
+        }
+    }
+
+    private static String decimal(double valor) {
+        return String.format(Locale.ROOT, "%.1f", valor);
+    }
+}
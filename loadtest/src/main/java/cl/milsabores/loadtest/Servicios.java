@@ -0,0 +1,102 @@
+package cl.milsabores.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Levanta los jar -exec de los servicios en JVM propias con el perfil embebido
+ * (la salida de cada uno queda en {@code <salida>/<nombre>.log}) y los detiene al cerrar.
+ */
+final class Servicios implements AutoCloseable {
+
+    private static final Duration ESPERA_DETENCION = Duration.ofSeconds(20);
+
+    private final HttpClient http;
+    private final Path salida;
+    private final List<Process> procesos = new ArrayList<>();
+
+    Servicios(HttpClient http, Path salida) {
+        this.http = http;
+        this.salida = salida;
+    }
+
+    void iniciar(String nombre, Path jar, int puerto, List<String> jvm, List<String> argumentos) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("No existe " + jar
+                    + ": construir antes los servicios (mvn -DskipTests package desde la raíz)");
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(jvm);
+        comando.add("-jar");
+        comando.add(jar.toString());
+        comando.add("--spring.profiles.active=embebido");
+        comando.add("--server.port=" + puerto);
+        comando.addAll(argumentos);
+
+        Path log = salida.resolve(nombre + ".log");
+        procesos.add(new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start());
+        System.out.println("[CARGA] Iniciando " + nombre + " en el puerto " + puerto + " (log: " + log + ")");
+    }
+
+    /**
+     * Espera a que /actuator/health responda 200. La siembra de datos corre antes de que
+     * el servidor acepte requests, así que al responder los datos ya están cargados.
+     */
+    void esperarDisponible(String nombre, String url, Duration maximo) throws InterruptedException {
+        esperar(nombre, url + "/actuator/health", maximo, Duration.ofMillis(500));
+        System.out.println("[CARGA] " + nombre + " disponible en " + url);
+    }
+
+    /**
+     * Consulta {@code url} cada {@code pausa} hasta obtener una respuesta sin error de servidor.
+     *
+     * @return código HTTP de esa primera respuesta
+     */
+    int esperar(String nombre, String url, Duration maximo, Duration pausa) throws InterruptedException {
+        long limite = System.nanoTime() + maximo.toNanos();
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        while (System.nanoTime() < limite) {
+            if (procesos.stream().anyMatch(proceso -> !proceso.isAlive())) {
+                throw new IllegalStateException(nombre + " terminó antes de estar disponible; revisar " + salida);
+            }
+            try {
+                int estado = http.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (estado < 500) {
+                    return estado;
+                }
+            } catch (IOException e) {
+                // Todavía no abre el puerto
+            }
+            Thread.sleep(pausa.toMillis());
+        }
+        throw new IllegalStateException(nombre + " no estuvo disponible en " + maximo.toSeconds() + " s");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (Process proceso : procesos) {
+            proceso.destroy();
+        }
+        for (Process proceso : procesos) {
+            if (!proceso.waitFor(ESPERA_DETENCION.toMillis(), TimeUnit.MILLISECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.config.RuteoLecturaEscritura;
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Catálogo en memoria para los endpoints de lectura.
+ * <p>
+ * Las lecturas solo leen una referencia volatile a un {@link CatalogoSnapshot}
+ * inmutable: no tocan la base de datos ni toman locks. Las escrituras de
+ * ProductoService parchan el snapshot (bajo un lock de escritura) y una recarga
+ * periódica incorpora los cambios hechos directamente en la base de datos.
+ * El índice de búsqueda por texto se mantiene junto con el snapshot, y cada cambio
+ * aplicado (escritura o diferencia encontrada al recargar) se publica en {@link EventosCatalogo}.
+ */
+@Component
+public class CatalogoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCache.class);
+
+    private final ProductoRepository repo;
+    private final EventosCatalogo eventos;
+    private final Timer tiempoRecarga;
+
+    private volatile CatalogoSnapshot snapshot;
+    private volatile IndiceBusqueda indice = new IndiceBusqueda();
+
+    // Protegidos por "this": versión publicada, ids eliminados desde la última recarga y
+    // el último cambio por id (null = eliminado) aplicado mientras alguna recarga leía la base
+    private long version;
+    private final Set<Long> eliminados = new HashSet<>();
+    private final Map<Long, Producto> cambiosDuranteRecarga = new HashMap<>();
+    private int recargasEnCurso;
+
+    public CatalogoCache(ProductoRepository repo, EventosCatalogo eventos, MeterRegistry meterRegistry) {
+        this.repo = repo;
+        this.eventos = eventos;
+        this.tiempoRecarga = Timer.builder("productos.catalogo.reload")
+                .description("Tiempo de recarga del catálogo desde la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("productos.catalogo.size", this, c -> c.snapshot != null ? c.snapshot.tamano() : 0)
+                .register(meterRegistry);
+        Gauge.builder("productos.catalogo.version", this, c -> c.snapshot != null ? c.snapshot.version() : 0)
+                .register(meterRegistry);
+    }
+
+    // ============================
+    // LECTURA
+    // ============================
+    public CatalogoSnapshot obtener() {
+        CatalogoSnapshot actual = snapshot;
+        if (actual != null) {
+            return actual;
+        }
+        // Solo hasta la primera carga (p.ej. si la base no estaba disponible al iniciar)
+        recargar();
+        return snapshot;
+    }
+
+    /**
+     * Índice de búsqueda del catálogo (vacío hasta la primera carga; llamar antes a {@link #obtener()}).
+     */
+    public IndiceBusqueda indice() {
+        return indice;
+    }
+
+    // ============================
+    // ESCRITURAS (después de confirmar en la base de datos)
+    // ============================
+    // Dos escrituras del mismo producto pueden llegar en otro orden que el de sus commits: se
+    // descarta la que trae una versión (@Version) anterior a la publicada, y las de productos ya eliminados
+    public synchronized void productoGuardado(Producto producto) {
+        if (!aplicable(producto)) {
+            return;
+        }
+        registrarDuranteRecarga(producto.getId(), producto);
+        Producto anterior = null;
+        if (snapshot != null) {
+            anterior = snapshot.porId(producto.getId());
+            snapshot = snapshot.conProducto(++version, producto);
+        }
+        indice.agregar(producto);
+        EventosCatalogo.Cambio cambio = EventosCatalogo.guardado(anterior, producto);
+        if (cambio != null) {
+            eventos.publicar(List.of(cambio));
+        }
+    }
+
+    public synchronized void productosGuardados(Collection<Producto> productos) {
+        List<Producto> aplicables = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            if (aplicable(producto)) {
+                aplicables.add(producto);
+            }
+        }
+        if (aplicables.isEmpty()) {
+            return;
+        }
+        List<EventosCatalogo.Cambio> cambios = new ArrayList<>(aplicables.size());
+        for (Producto producto : aplicables) {
+            registrarDuranteRecarga(producto.getId(), producto);
+            EventosCatalogo.Cambio cambio = EventosCatalogo.guardado(
+                    snapshot != null ? snapshot.porId(producto.getId()) : null, producto);
+            if (cambio != null) {
+                cambios.add(cambio);
+            }
+        }
+        if (snapshot != null) {
+            snapshot = snapshot.conProductos(++version, aplicables);
+        }
+        for (Producto producto : aplicables) {
+            indice.agregar(producto);
+        }
+        eventos.publicar(cambios);
+    }
+
+    public synchronized void productoEliminado(Long id) {
+        eliminados.add(id);
+        registrarDuranteRecarga(id, null);
+        if (snapshot != null) {
+            snapshot = snapshot.sinProducto(++version, id);
+        }
+        indice.quitar(id);
+        eventos.publicar(List.of(EventosCatalogo.eliminado(id)));
+    }
+
+    private boolean aplicable(Producto producto) {
+        if (eliminados.contains(producto.getId())) {
+            return false;
+        }
+        Producto publicado = cambiosDuranteRecarga.get(producto.getId());
+        if (publicado == null && snapshot != null) {
+            publicado = snapshot.porId(producto.getId());
+        }
+        return publicado == null || !esAnterior(producto, publicado);
+    }
+
+    private static boolean esAnterior(Producto producto, Producto referencia) {
+        return producto.getVersion() != null && referencia.getVersion() != null
+                && producto.getVersion() < referencia.getVersion();
+    }
+
+    private void registrarDuranteRecarga(Long id, Producto producto) {
+        if (recargasEnCurso > 0) {
+            cambiosDuranteRecarga.put(id, producto);
+        }
+    }
+
+    // ============================
+    // RECARGA
+    // ============================
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar el catálogo al iniciar", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${productos.catalogo.refrescar-cada-ms:60000}",
+            initialDelayString = "${productos.catalogo.refrescar-cada-ms:60000}")
+    public void refrescar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Se mantiene el snapshot anterior
+            log.warn("No se pudo refrescar el catálogo", e);
+        }
+    }
+
+    /**
+     * Lee el catálogo completo fuera del lock y lo publica siempre. Las escrituras de este
+     * servicio aplicadas mientras tanto (que la lectura puede no incluir) se vuelven a aplicar
+     * sobre lo leído si son más nuevas que la fila leída, así una recarga nunca retrocede el
+     * catálogo aunque las escrituras no se detengan.
+     */
+    public void recargar() {
+        synchronized (this) {
+            recargasEnCurso++;
+        }
+        List<Producto> productos;
+        try {
+            // Siempre del primario: una réplica atrasada haría retroceder escrituras ya publicadas
+            productos = tiempoRecarga.record(() -> RuteoLecturaEscritura.enPrimario(repo::findAll));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                terminarRecarga();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            CatalogoSnapshot nuevo = CatalogoSnapshot.de(version + 1, conCambios(productos, terminarRecarga()));
+            // Lo eliminado antes de esta lectura ya no está en la base
+            eliminados.clear();
+            // Sin cambios no se publica una versión nueva
+            if (snapshot != null && snapshot.todos().equals(nuevo.todos())) {
+                return;
+            }
+            version++;
+            indice = IndiceBusqueda.de(nuevo.todos());
+            if (snapshot != null) {
+                eventos.publicar(diferencias(snapshot, nuevo));
+            }
+            snapshot = nuevo;
+        }
+    }
+
+    // Llamar con el lock: devuelve los cambios aplicados durante la lectura
+    private Map<Long, Producto> terminarRecarga() {
+        Map<Long, Producto> durante = new HashMap<>(cambiosDuranteRecarga);
+        if (--recargasEnCurso == 0) {
+            cambiosDuranteRecarga.clear();
+        }
+        return durante;
+    }
+
+    private static Collection<Producto> conCambios(List<Producto> leidos, Map<Long, Producto> durante) {
+        if (durante.isEmpty()) {
+            return leidos;
+        }
+        Map<Long, Producto> porId = new LinkedHashMap<>(leidos.size() * 2);
+        for (Producto producto : leidos) {
+            porId.put(producto.getId(), producto);
+        }
+        durante.forEach((id, producto) -> {
+            if (producto == null) {
+                porId.remove(id);
+            } else {
+                Producto leido = porId.get(id);
+                if (leido == null || !esAnterior(producto, leido)) {
+                    porId.put(id, producto);
+                }
+            }
+        });
+        return porId.values();
+    }
+
+    // Cambios hechos fuera de este servicio (directo en la base) que trae una recarga
+    private static List<EventosCatalogo.Cambio> diferencias(CatalogoSnapshot anterior, CatalogoSnapshot nuevo) {
+        List<EventosCatalogo.Cambio> cambios = new ArrayList<>();
+        for (Producto producto : nuevo.todos()) {
+            EventosCatalogo.Cambio cambio = EventosCatalogo.guardado(anterior.porId(producto.getId()), producto);
+            if (cambio != null) {
+                cambios.add(cambio);
+            }
+        }
+        for (Producto producto : anterior.todos()) {
+            if (nuevo.porId(producto.getId()) == null) {
+                cambios.add(EventosCatalogo.eliminado(producto.getId()));
+            }
+        }
+        return cambios;
+    }
+}
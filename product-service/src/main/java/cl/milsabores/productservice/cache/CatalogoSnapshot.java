@@ -0,0 +1,193 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia inmutable del catálogo con las vistas que usan los endpoints de lectura
+ * ya calculadas: todos, solo disponibles, por categoría (sin distinguir mayúsculas) y por id.
+ * <p>
+ * Los productos son copias propias del snapshot: nadie fuera de él debe modificarlos.
+ * Las vistas ordenadas para paginar y las columnas para las facetas se calculan
+ * la primera vez que se piden y viven lo mismo que el snapshot.
+ */
+public final class CatalogoSnapshot {
+
+    private static final Comparator<Producto> POR_ID = Comparator.comparing(Producto::getId);
+
+    private final long version;
+    private final List<Producto> todos;
+    private final List<Producto> disponibles;
+    private final Map<String, List<Producto>> porCategoria;
+    private final Map<Long, Producto> porId;
+    private final Map<String, List<Producto>> ordenados = new ConcurrentHashMap<>();
+    private volatile IndiceColumnar columnas;
+
+    private CatalogoSnapshot(long version, List<Producto> ordenados) {
+        this.version = version;
+        this.todos = List.copyOf(ordenados);
+
+        List<Producto> soloDisponibles = new ArrayList<>();
+        Map<String, List<Producto>> categorias = new LinkedHashMap<>();
+        Map<Long, Producto> indice = new HashMap<>(ordenados.size() * 2);
+        for (Producto p : ordenados) {
+            if (p.isDisponible()) {
+                soloDisponibles.add(p);
+            }
+            if (p.getCategoria() != null) {
+                categorias.computeIfAbsent(normalizarCategoria(p.getCategoria()), k -> new ArrayList<>()).add(p);
+            }
+            indice.put(p.getId(), p);
+        }
+        categorias.replaceAll((k, lista) -> List.copyOf(lista));
+
+        this.disponibles = List.copyOf(soloDisponibles);
+        this.porCategoria = Map.copyOf(categorias);
+        this.porId = Map.copyOf(indice);
+    }
+
+    /**
+     * Arma un snapshot copiando los productos recibidos (p.ej. entidades recién leídas).
+     */
+    public static CatalogoSnapshot de(long version, Collection<Producto> productos) {
+        List<Producto> copias = new ArrayList<>(productos.size());
+        for (Producto p : productos) {
+            copias.add(copiar(p));
+        }
+        copias.sort(POR_ID);
+        return new CatalogoSnapshot(version, copias);
+    }
+
+    /**
+     * Nuevo snapshot con el producto agregado o reemplazado (mismo id).
+     */
+    public CatalogoSnapshot conProducto(long nuevaVersion, Producto producto) {
+        List<Producto> lista = new ArrayList<>(todos.size() + 1);
+        Producto copia = copiar(producto);
+        boolean reemplazado = false;
+        for (Producto p : todos) {
+            if (p.getId().equals(copia.getId())) {
+                lista.add(copia);
+                reemplazado = true;
+            } else {
+                lista.add(p);
+            }
+        }
+        if (!reemplazado) {
+            lista.add(copia);
+            lista.sort(POR_ID);
+        }
+        return new CatalogoSnapshot(nuevaVersion, lista);
+    }
+
+    /**
+     * Nuevo snapshot con varios productos agregados o reemplazados de una vez
+     * (cargas masivas: una sola copia del catálogo en vez de una por producto).
+     */
+    public CatalogoSnapshot conProductos(long nuevaVersion, Collection<Producto> productos) {
+        Map<Long, Producto> copias = new HashMap<>(productos.size() * 2);
+        for (Producto p : productos) {
+            copias.put(p.getId(), copiar(p));
+        }
+        List<Producto> lista = new ArrayList<>(todos.size() + copias.size());
+        for (Producto p : todos) {
+            Producto copia = copias.remove(p.getId());
+            lista.add(copia != null ? copia : p);
+        }
+        if (!copias.isEmpty()) {
+            lista.addAll(copias.values());
+            lista.sort(POR_ID);
+        }
+        return new CatalogoSnapshot(nuevaVersion, lista);
+    }
+
+    /**
+     * Nuevo snapshot sin el producto indicado.
+     */
+    public CatalogoSnapshot sinProducto(long nuevaVersion, Long id) {
+        List<Producto> lista = new ArrayList<>(todos.size());
+        for (Producto p : todos) {
+            if (!p.getId().equals(id)) {
+                lista.add(p);
+            }
+        }
+        return new CatalogoSnapshot(nuevaVersion, lista);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<Producto> todos() {
+        return todos;
+    }
+
+    public List<Producto> disponibles() {
+        return disponibles;
+    }
+
+    public List<Producto> porCategoria(String categoria) {
+        if (categoria == null) {
+            return List.of();
+        }
+        return porCategoria.getOrDefault(normalizarCategoria(categoria), List.of());
+    }
+
+    public Producto porId(Long id) {
+        return id != null ? porId.get(id) : null;
+    }
+
+    /**
+     * Vista ordenada y memorizada; {@code clave} debe identificar la vista y el orden.
+     */
+    public List<Producto> ordenado(String clave, List<Producto> vista, Comparator<Producto> orden) {
+        return ordenados.computeIfAbsent(clave, k -> {
+            List<Producto> copia = new ArrayList<>(vista);
+            copia.sort(orden);
+            return List.copyOf(copia);
+        });
+    }
+
+    /**
+     * Columnas primitivas para las consultas por facetas, armadas la primera vez que se piden.
+     */
+    public IndiceColumnar columnas() {
+        IndiceColumnar actual = columnas;
+        if (actual == null) {
+            // Si dos hilos llegan a la vez se arma dos veces; ambos resultados son iguales
+            actual = IndiceColumnar.de(todos);
+            columnas = actual;
+        }
+        return actual;
+    }
+
+    public int tamano() {
+        return todos.size();
+    }
+
+    static String normalizarCategoria(String categoria) {
+        return categoria.toLowerCase(Locale.ROOT);
+    }
+
+    private static Producto copiar(Producto p) {
+        return Producto.builder()
+                .id(p.getId())
+                .nombre(p.getNombre())
+                .descripcion(p.getDescripcion())
+                .precio(p.getPrecio())
+                .categoria(p.getCategoria())
+                .disponible(p.isDisponible())
+                .urlImagen(p.getUrlImagen())
+                .version(p.getVersion())
+                .build();
+    }
+}
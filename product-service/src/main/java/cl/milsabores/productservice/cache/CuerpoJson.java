@@ -0,0 +1,32 @@
+package cl.milsabores.productservice.cache;
+
+/**
+ * Respuesta JSON ya serializada, con su variante gzip (null si no conviene comprimir)
+ * y ETags fuertes derivados del contenido, distintos para cada codificación.
+ */
+public record CuerpoJson(
+        byte[] json,
+        byte[] gzip,
+        String etag,
+        String etagGzip
+) {
+
+    /**
+     * Comparación débil de If-None-Match (RFC 9110): acepta "*", listas y prefijos W/.
+     */
+    public boolean coincideCon(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag) || (etagGzip != null && valor.equals(etagGzip))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,456 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal de cambios del catálogo para GET /api/productos/eventos (Server-Sent Events).
+ * <p>
+ * Los eventos se serializan una vez y quedan en un anillo de tamaño fijo; cada cliente
+ * solo guarda hasta qué evento recibió. Un cliente conectado no ocupa un hilo: cuando hay
+ * eventos nuevos se programa un envío en un pool pequeño que le manda lo pendiente.
+ * Si un cliente se atrasa más que {@code retrasoMax} eventos se le cierra la conexión;
+ * al reconectar con Last-Event-ID recibe lo que falta, o un evento "reinicio" si eso ya
+ * salió del anillo (debe volver a pedir el listado completo).
+ * <p>
+ * Un envío a un cliente que no lee queda bloqueado en la escritura del socket. A lo más
+ * {@code hilosEnvio} envíos corren a la vez; si uno lleva más de {@code esperaEnvioMs}
+ * escribiendo, {@link #vigilarEnvios()} desaloja al cliente y libera su cupo para los demás.
+ * El hilo bloqueado termina cuando el contenedor corta la escritura (timeout del conector,
+ * server.tomcat.connection-timeout). Mientras tanto sigue contando en el pool, que tiene a lo
+ * más {@code hilosMax} hilos: con todos tomados, los clientes listos esperan en la cola hasta
+ * que se libere alguno.
+ */
+@Component
+public class EventosCatalogo {
+
+    public static final String CREADO = "creado";
+    public static final String ACTUALIZADO = "actualizado";
+    public static final String DISPONIBILIDAD = "disponibilidad";
+    public static final String ELIMINADO = "eliminado";
+    public static final String REINICIO = "reinicio";
+
+    // Eventos enviados por pasada de un envío, antes de volver a mirar el anillo
+    private static final int LOTE_ENVIO = 64;
+
+    /**
+     * Cambio de un producto. {@code producto} es null en las eliminaciones.
+     */
+    public record Cambio(String tipo, Long productoId, Producto producto) {
+    }
+
+    record Evento(long numero, String tipo, String datos) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long duracionMaxMs;
+    private final int retrasoMax;
+    private final long esperaEnvioNs;
+    private final ThreadPoolExecutor envios;
+    // Cupos de envío: un envío bloqueado más de esperaEnvioMs devuelve el suyo antes de terminar
+    private final Semaphore cupos;
+    private final Queue<Suscriptor> listos = new ConcurrentLinkedQueue<>();
+    private final Set<Suscriptor> enEnvio = ConcurrentHashMap.newKeySet();
+    private final Counter desalojados;
+    private final Counter enviosVencidos;
+
+    // Los ids de evento llevan el arranque del proceso: un id de otra instancia o de antes de un reinicio no se confunde
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+
+    // Protegidos por "this"
+    private final Evento[] anillo;
+    private long ultimo;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+
+    public EventosCatalogo(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${productos.eventos.capacidad:4096}") int capacidad,
+                           @Value("${productos.eventos.retraso-max:1024}") int retrasoMax,
+                           @Value("${productos.eventos.hilos-envio:4}") int hilosEnvio,
+                           @Value("${productos.eventos.hilos-max:16}") int hilosMax,
+                           @Value("${productos.eventos.duracion-max-ms:1800000}") long duracionMaxMs,
+                           @Value("${productos.eventos.espera-envio-ms:5000}") long esperaEnvioMs) {
+        this.objectMapper = objectMapper;
+        this.anillo = new Evento[capacidad];
+        this.retrasoMax = Math.min(retrasoMax, capacidad);
+        this.duracionMaxMs = duracionMaxMs;
+        this.esperaEnvioNs = TimeUnit.MILLISECONDS.toNanos(esperaEnvioMs);
+        this.cupos = new Semaphore(hilosEnvio);
+        AtomicInteger hilos = new AtomicInteger();
+        // Los cupos limitan los envíos en curso; los hilos de más son para los envíos vencidos que
+        // el conector todavía no corta. Sin cola: con todos los hilos tomados execute rechaza
+        this.envios = new ThreadPoolExecutor(0, Math.max(hilosEnvio, hilosMax), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread hilo = new Thread(r, "eventos-catalogo-" + hilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.desalojados = Counter.builder("productos.eventos.evicted")
+                .description("Clientes de eventos desconectados por atrasarse demasiado")
+                .register(meterRegistry);
+        this.enviosVencidos = Counter.builder("productos.eventos.send.timeouts")
+                .description("Clientes de eventos desconectados por un envío bloqueado más de espera-envio-ms")
+                .register(meterRegistry);
+        Gauge.builder("productos.eventos.clients", suscriptores, Set::size)
+                .register(meterRegistry);
+        Gauge.builder("productos.eventos.last", this, EventosCatalogo::ultimo)
+                .register(meterRegistry);
+    }
+
+    // ============================
+    // PUBLICACIÓN
+    // ============================
+
+    /**
+     * Agrega los cambios al anillo en el orden dado y avisa a los clientes. Lo llama
+     * CatalogoCache al aplicar cada escritura, así el orden de los eventos es el del catálogo.
+     */
+    public void publicar(List<Cambio> cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        List<String> datos = new ArrayList<>(cambios.size());
+        for (Cambio cambio : cambios) {
+            datos.add(json(cambio));
+        }
+        long nuevoUltimo;
+        synchronized (this) {
+            for (int i = 0; i < cambios.size(); i++) {
+                ultimo++;
+                anillo[posicion(ultimo)] = new Evento(ultimo, cambios.get(i).tipo(), datos.get(i));
+            }
+            nuevoUltimo = ultimo;
+        }
+        for (Suscriptor suscriptor : suscriptores) {
+            if (nuevoUltimo - suscriptor.enviado > retrasoMax) {
+                desalojar(suscriptor);
+            }
+            programar(suscriptor);
+        }
+    }
+
+    // ============================
+    // SUSCRIPCIÓN
+    // ============================
+
+    /**
+     * @param ultimoId Last-Event-ID enviado por el cliente al reconectar (null en la primera conexión)
+     */
+    public SseEmitter suscribir(String ultimoId) {
+        return suscribir(ultimoId, new SseEmitter(duracionMaxMs));
+    }
+
+    SseEmitter suscribir(String ultimoId, SseEmitter emitter) {
+        Suscriptor suscriptor = new Suscriptor(emitter);
+        synchronized (this) {
+            long desde = desdeUltimoId(ultimoId);
+            if (desde < 0) {
+                suscriptor.reinicioPendiente = true;
+                desde = ultimo;
+            }
+            suscriptor.enviado = desde;
+            suscriptores.add(suscriptor);
+        }
+        emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> suscriptores.remove(suscriptor));
+        programar(suscriptor);
+        return emitter;
+    }
+
+    /**
+     * Número del último evento que el cliente ya tiene, o -1 si no se puede
+     * continuar desde ahí (id de otro arranque o ya fuera del anillo).
+     */
+    synchronized long desdeUltimoId(String ultimoId) {
+        if (ultimoId == null || ultimoId.isBlank()) {
+            return ultimo;
+        }
+        int separador = ultimoId.indexOf('-');
+        if (separador < 0 || !ultimoId.substring(0, separador).equals(arranque)) {
+            return -1;
+        }
+        long numero;
+        try {
+            numero = Long.parseLong(ultimoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (numero > ultimo || ultimo - numero > retrasoMax) {
+            return -1;
+        }
+        return numero;
+    }
+
+    /**
+     * Hasta {@code maximo} eventos posteriores a {@code numero}, en orden, o null si
+     * el cliente se atrasó más que {@code retrasoMax}.
+     */
+    synchronized List<Evento> despuesDe(long numero, int maximo) {
+        if (ultimo - numero > retrasoMax) {
+            return null;
+        }
+        int cantidad = (int) Math.min(ultimo - numero, maximo);
+        List<Evento> eventos = new ArrayList<>(Math.max(cantidad, 0));
+        for (long n = numero + 1; n <= numero + cantidad; n++) {
+            eventos.add(anillo[posicion(n)]);
+        }
+        return eventos;
+    }
+
+    String id(Evento evento) {
+        return arranque + "-" + evento.numero();
+    }
+
+    // Comentario periódico: mantiene abiertas las conexiones ociosas en proxies y detecta clientes caídos
+    @Scheduled(fixedDelayString = "${productos.eventos.latido-ms:20000}",
+            initialDelayString = "${productos.eventos.latido-ms:20000}")
+    public void latido() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.latidoPendiente = true;
+            programar(suscriptor);
+        }
+    }
+
+    /**
+     * Desaloja a los clientes con un envío bloqueado más de {@code esperaEnvioMs} y devuelve
+     * su cupo. No se toca el emitter: sus métodos esperan a que termine el envío bloqueado.
+     */
+    @Scheduled(fixedDelayString = "${productos.eventos.vigilar-envios-ms:1000}")
+    public void vigilarEnvios() {
+        long ahora = System.nanoTime();
+        for (Suscriptor suscriptor : enEnvio) {
+            long desde = suscriptor.escribiendoDesde;
+            if (desde != 0 && ahora - desde > esperaEnvioNs && suscriptor.conCupo.compareAndSet(true, false)) {
+                suscriptor.desalojado = true;
+                suscriptores.remove(suscriptor);
+                enviosVencidos.increment();
+                cupos.release();
+                despachar();
+            }
+        }
+        // Clientes que quedaron en la cola porque el pool estaba lleno
+        despachar();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        envios.shutdownNow();
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.emitter.complete();
+        }
+    }
+
+    // ============================
+    // ENVÍO
+    // ============================
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            listos.add(suscriptor);
+            despachar();
+        }
+    }
+
+    // Lo llaman quien encola, quien devuelve un cupo y cada envío al terminar (libera un hilo),
+    // así ningún cliente listo queda sin envío
+    private void despachar() {
+        while (!listos.isEmpty() && cupos.tryAcquire()) {
+            Suscriptor suscriptor = listos.poll();
+            if (suscriptor == null) {
+                cupos.release();
+                continue;
+            }
+            suscriptor.conCupo.set(true);
+            enEnvio.add(suscriptor);
+            try {
+                envios.execute(() -> {
+                    try {
+                        enviar(suscriptor);
+                    } finally {
+                        enEnvio.remove(suscriptor);
+                        if (suscriptor.conCupo.compareAndSet(true, false)) {
+                            cupos.release();
+                        }
+                        despachar();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Todos los hilos siguen bloqueados en envíos vencidos: el cliente vuelve a la cola
+                enEnvio.remove(suscriptor);
+                suscriptor.conCupo.set(false);
+                cupos.release();
+                listos.add(suscriptor);
+                return;
+            }
+        }
+    }
+
+    int hilosEnvio() {
+        return envios.getPoolSize();
+    }
+
+    private void desalojar(Suscriptor suscriptor) {
+        // No se toca el emitter acá: un envío bloqueado en ese cliente lo tiene tomado
+        if (suscriptores.remove(suscriptor)) {
+            suscriptor.desalojado = true;
+            desalojados.increment();
+        }
+    }
+
+    // Corre en el pool, de a un envío por cliente (lo garantiza la marca "enviando")
+    private void enviar(Suscriptor suscriptor) {
+        SseEmitter emitter = suscriptor.emitter;
+        try {
+            while (true) {
+                if (suscriptor.desalojado) {
+                    emitter.complete();
+                    return;
+                }
+                if (suscriptor.reinicioPendiente) {
+                    suscriptor.reinicioPendiente = false;
+                    escribir(suscriptor, SseEmitter.event().name(REINICIO).data("{}", MediaType.APPLICATION_JSON));
+                }
+                List<Evento> eventos = despuesDe(suscriptor.enviado, LOTE_ENVIO);
+                if (eventos == null) {
+                    desalojar(suscriptor);
+                    emitter.complete();
+                    return;
+                }
+                if (eventos.isEmpty()) {
+                    if (suscriptor.latidoPendiente) {
+                        suscriptor.latidoPendiente = false;
+                        escribir(suscriptor, SseEmitter.event().comment(""));
+                    }
+                    suscriptor.enviando.set(false);
+                    // Un evento publicado justo antes de soltar la marca no programó envío
+                    if (ultimo() == suscriptor.enviado || !suscriptor.enviando.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                for (Evento evento : eventos) {
+                    escribir(suscriptor, SseEmitter.event()
+                            .id(id(evento))
+                            .name(evento.tipo())
+                            .data(evento.datos(), MediaType.APPLICATION_JSON));
+                    suscriptor.enviado = evento.numero();
+                }
+                suscriptor.latidoPendiente = false;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Cliente desconectado o emitter ya completado
+            suscriptores.remove(suscriptor);
+            suscriptor.enviando.set(false);
+        }
+    }
+
+    private static void escribir(Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) throws IOException {
+        suscriptor.escribiendoDesde = System.nanoTime();
+        try {
+            suscriptor.emitter.send(evento);
+        } finally {
+            suscriptor.escribiendoDesde = 0;
+        }
+    }
+
+    private synchronized long ultimo() {
+        return ultimo;
+    }
+
+    private int posicion(long numero) {
+        return (int) (numero % anillo.length);
+    }
+
+    /**
+     * Cambio de {@code anterior} (null si no estaba en el catálogo) a {@code nuevo},
+     * o null si no cambió nada.
+     */
+    public static Cambio guardado(Producto anterior, Producto nuevo) {
+        if (anterior == null) {
+            return new Cambio(CREADO, nuevo.getId(), nuevo);
+        }
+        boolean mismosDatos = Objects.equals(anterior.getNombre(), nuevo.getNombre())
+                && Objects.equals(anterior.getDescripcion(), nuevo.getDescripcion())
+                && Objects.equals(anterior.getCategoria(), nuevo.getCategoria())
+                && Objects.equals(anterior.getUrlImagen(), nuevo.getUrlImagen())
+                && mismoPrecio(anterior.getPrecio(), nuevo.getPrecio());
+        if (!mismosDatos) {
+            return new Cambio(ACTUALIZADO, nuevo.getId(), nuevo);
+        }
+        if (anterior.isDisponible() != nuevo.isDisponible()) {
+            return new Cambio(DISPONIBILIDAD, nuevo.getId(), nuevo);
+        }
+        return Objects.equals(anterior.getVersion(), nuevo.getVersion())
+                ? null
+                : new Cambio(ACTUALIZADO, nuevo.getId(), nuevo);
+    }
+
+    public static Cambio eliminado(Long id) {
+        return new Cambio(ELIMINADO, id, null);
+    }
+
+    // 1500.5 y 1500.50 son el mismo precio (la escala cambia entre el cuerpo recibido y la base)
+    private static boolean mismoPrecio(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private String json(Cambio cambio) {
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("tipo", cambio.tipo());
+        cuerpo.put("id", cambio.productoId());
+        cuerpo.put("producto", cambio.producto());
+        try {
+            return objectMapper.writeValueAsString(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Suscriptor {
+        final SseEmitter emitter;
+        final AtomicBoolean enviando = new AtomicBoolean();
+        // Último evento enviado; lo escribe solo el envío en curso
+        volatile long enviado;
+        volatile boolean reinicioPendiente;
+        volatile boolean latidoPendiente = true;
+        volatile boolean desalojado;
+        // Instante (nanoTime) en que empezó la escritura en curso, 0 si no está escribiendo
+        volatile long escribiendoDesde;
+        // El envío en curso tiene un cupo que todavía no devolvió
+        final AtomicBoolean conCupo = new AtomicBoolean();
+
+        Suscriptor(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
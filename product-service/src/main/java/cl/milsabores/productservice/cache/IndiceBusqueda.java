@@ -0,0 +1,418 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para buscar productos por nombre, categoría y descripción.
+ * <p>
+ * Los términos se guardan sin tildes y en minúsculas ("Pastelería" queda "pasteleria").
+ * Cada término de la consulta debe aparecer en el producto: tal cual, como prefijo
+ * (solo el último término, para autocompletar) o, si no hay otra coincidencia,
+ * con una o dos letras de diferencia.
+ * <p>
+ * Cada producto ocupa una posición fija (slot) y las listas de cada término son
+ * arreglos de slots, para puntuar una consulta sin crear objetos por producto.
+ * CatalogoCache lo actualiza en cada escritura (producto por producto) y lo
+ * reconstruye al recargar el catálogo; las búsquedas toman solo el lock de lectura.
+ */
+public final class IndiceBusqueda {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Peso de cada campo en la relevancia
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_CATEGORIA = 2;
+    private static final int PESO_DESCRIPCION = 1;
+
+    // Factor según cómo coincidió el término de la consulta
+    private static final float EXACTO = 1.0f;
+    private static final float PREFIJO = 0.6f;
+    private static final float APROXIMADO = 0.4f;
+
+    // Prefijos de una letra o términos cortos con errores traerían casi todo el catálogo
+    private static final int MIN_LARGO_PREFIJO = 2;
+    private static final int MIN_LARGO_APROXIMADO = 4;
+    private static final int LARGO_DOS_ERRORES = 8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // término -> slots de los productos que lo contienen; ordenado para buscar por prefijo
+    private final TreeMap<String, Entradas> terminos = new TreeMap<>();
+    // Los mismos términos agrupados por largo, para la búsqueda aproximada
+    private final List<Cubeta> terminosPorLargo = new ArrayList<>();
+
+    // id de producto <-> slot; los slots liberados se reutilizan
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private final ArrayDeque<Integer> slotsLibres = new ArrayDeque<>();
+    private long[] idPorSlot = new long[16];
+    // Términos de cada slot, para quitarlos al actualizar o eliminar
+    private String[][] terminosPorSlot = new String[16][];
+    private int slotsUsados;
+
+    public static IndiceBusqueda de(Collection<Producto> productos) {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        for (Producto p : productos) {
+            indice.indexar(p);
+        }
+        return indice;
+    }
+
+    // ============================
+    // ACTUALIZACIÓN
+    // ============================
+
+    /**
+     * Agrega el producto o reemplaza sus términos si ya estaba indexado.
+     */
+    public void agregar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            desindexar(producto.getId());
+            indexar(producto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long id) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexar(Producto producto) {
+        Map<String, Integer> pesos = new HashMap<>();
+        sumarPesos(pesos, producto.getNombre(), PESO_NOMBRE);
+        sumarPesos(pesos, producto.getCategoria(), PESO_CATEGORIA);
+        sumarPesos(pesos, producto.getDescripcion(), PESO_DESCRIPCION);
+
+        int slot = asignarSlot(producto.getId());
+        for (Map.Entry<String, Integer> e : pesos.entrySet()) {
+            Entradas entradas = terminos.get(e.getKey());
+            if (entradas == null) {
+                entradas = new Entradas(e.getKey());
+                terminos.put(e.getKey(), entradas);
+                cubeta(e.getKey().length()).agregar(entradas);
+            }
+            entradas.agregar(slot, e.getValue());
+        }
+        terminosPorSlot[slot] = pesos.keySet().toArray(new String[0]);
+    }
+
+    private void desindexar(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String termino : terminosPorSlot[slot]) {
+            Entradas entradas = terminos.get(termino);
+            entradas.quitar(slot);
+            if (entradas.tamano == 0) {
+                terminos.remove(termino);
+                cubeta(termino.length()).quitar(entradas);
+            }
+        }
+        terminosPorSlot[slot] = null;
+        slotsLibres.push(slot);
+    }
+
+    private int asignarSlot(Long id) {
+        Integer libre = slotsLibres.poll();
+        int slot = libre != null ? libre : slotsUsados++;
+        if (slot == idPorSlot.length) {
+            idPorSlot = Arrays.copyOf(idPorSlot, slot * 2);
+            terminosPorSlot = Arrays.copyOf(terminosPorSlot, slot * 2);
+        }
+        idPorSlot[slot] = id;
+        slotPorId.put(id, slot);
+        return slot;
+    }
+
+    private Cubeta cubeta(int largo) {
+        while (terminosPorLargo.size() <= largo) {
+            terminosPorLargo.add(new Cubeta());
+        }
+        return terminosPorLargo.get(largo);
+    }
+
+    // Un término repetido en el mismo campo cuenta una vez; en varios campos se suman los pesos
+    private static void sumarPesos(Map<String, Integer> pesos, String texto, int peso) {
+        for (String termino : tokenizar(texto)) {
+            pesos.merge(termino, peso, Integer::sum);
+        }
+    }
+
+    // ============================
+    // BÚSQUEDA
+    // ============================
+
+    /**
+     * @return ids de los productos que contienen todos los términos de la consulta,
+     * del más relevante al menos relevante (a igual relevancia, por id)
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> consultaTerminos = tokenizar(consulta);
+        if (consultaTerminos.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Consulta estado = new Consulta(slotsUsados);
+            for (int i = 0; i < consultaTerminos.size(); i++) {
+                puntuar(estado, consultaTerminos.get(i), i, i == consultaTerminos.size() - 1);
+                if (estado.tocados == 0) {
+                    return List.of();
+                }
+            }
+            return mejores(estado, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suma a cada producto que ya calzó con los términos anteriores su mejor puntaje
+     * para este término (entre todos los términos del índice que coinciden).
+     * Al terminar, estado.slots tiene los productos que siguen en carrera.
+     */
+    private void puntuar(Consulta estado, String termino, int posicion, boolean comoPrefijo) {
+        estado.tocados = 0;
+        boolean coincide = false;
+
+        Entradas exactas = terminos.get(termino);
+        if (exactas != null) {
+            coincide = true;
+            acumular(estado, exactas, EXACTO, posicion);
+        }
+        if (comoPrefijo && termino.length() >= MIN_LARGO_PREFIJO) {
+            for (Entradas entradas : terminos.subMap(termino, false, termino + Character.MAX_VALUE, false).values()) {
+                coincide = true;
+                acumular(estado, entradas, PREFIJO, posicion);
+            }
+        }
+
+        if (!coincide && termino.length() >= MIN_LARGO_APROXIMADO) {
+            int maximo = termino.length() >= LARGO_DOS_ERRORES ? 2 : 1;
+            long mascara = mascara(termino);
+            int hasta = Math.min(termino.length() + maximo, terminosPorLargo.size() - 1);
+            for (int largo = termino.length() - maximo; largo <= hasta; largo++) {
+                Cubeta cubeta = terminosPorLargo.get(largo);
+                for (int j = 0; j < cubeta.tamano; j++) {
+                    // Cada edición cambia a lo más dos letras del conjunto: descarta sin calcular la distancia
+                    if (Long.bitCount(mascara ^ cubeta.mascaras[j]) <= 2 * maximo
+                            && distancia(termino, cubeta.entradas[j].termino, maximo) <= maximo) {
+                        acumular(estado, cubeta.entradas[j], APROXIMADO, posicion);
+                    }
+                }
+            }
+        }
+
+        for (int k = 0; k < estado.tocados; k++) {
+            int slot = estado.slots[k];
+            estado.total[slot] += estado.mejor[slot];
+            estado.mejor[slot] = 0;
+            estado.terminosCalzados[slot]++;
+        }
+    }
+
+    private static void acumular(Consulta estado, Entradas entradas, float factor, int posicion) {
+        for (int j = 0; j < entradas.tamano; j++) {
+            int slot = entradas.slots[j];
+            // Solo siguen los productos que calzaron con todos los términos anteriores
+            if (estado.terminosCalzados[slot] != posicion) {
+                continue;
+            }
+            float puntaje = entradas.pesos[j] * factor;
+            if (estado.mejor[slot] == 0) {
+                estado.slots[estado.tocados++] = slot;
+            }
+            if (puntaje > estado.mejor[slot]) {
+                estado.mejor[slot] = puntaje;
+            }
+        }
+    }
+
+    // Los "limite" mejores sin ordenar todos los resultados
+    private List<Long> mejores(Consulta estado, int limite) {
+        Comparator<Integer> orden = (a, b) -> estado.total[a] != estado.total[b]
+                ? Float.compare(estado.total[a], estado.total[b])
+                : Long.compare(idPorSlot[b], idPorSlot[a]);
+        PriorityQueue<Integer> peores = new PriorityQueue<>(Math.min(limite, estado.tocados) + 1, orden);
+        for (int k = 0; k < estado.tocados; k++) {
+            int slot = estado.slots[k];
+            // Con el cupo lleno, solo entra si supera al peor de los elegidos
+            if (peores.size() == limite && orden.compare(slot, peores.peek()) <= 0) {
+                continue;
+            }
+            peores.add(slot);
+            if (peores.size() > limite) {
+                peores.poll();
+            }
+        }
+
+        Long[] ids = new Long[peores.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = idPorSlot[peores.poll()];
+        }
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * Distancia de Levenshtein, cortando apenas supera el máximo (devuelve maximo + 1).
+     */
+    static int distancia(String a, String b, int maximo) {
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                actual[j] = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+                minimoFila = Math.min(minimoFila, actual[j]);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] tmp = anterior;
+            anterior = actual;
+            actual = tmp;
+        }
+        return anterior[b.length()];
+    }
+
+    // Conjunto de caracteres del término como bits (colisiones posibles: solo sirve para descartar)
+    private static long mascara(String termino) {
+        long mascara = 0;
+        for (int i = 0; i < termino.length(); i++) {
+            mascara |= 1L << (termino.charAt(i) & 63);
+        }
+        return mascara;
+    }
+
+    /**
+     * Términos del texto sin tildes ni mayúsculas, sin repetir y en orden de aparición.
+     */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> resultado = new LinkedHashSet<>();
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (!termino.isEmpty()) {
+                resultado.add(termino);
+            }
+        }
+        return new ArrayList<>(resultado);
+    }
+
+    // ============================
+    // ESTRUCTURAS INTERNAS
+    // ============================
+
+    // Slots (y peso del término en cada uno) de los productos que contienen un término
+    private static final class Entradas {
+        final String termino;
+        int[] slots = new int[4];
+        int[] pesos = new int[4];
+        int tamano;
+
+        Entradas(String termino) {
+            this.termino = termino;
+        }
+
+        void agregar(int slot, int peso) {
+            if (tamano == slots.length) {
+                slots = Arrays.copyOf(slots, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+            }
+            slots[tamano] = slot;
+            pesos[tamano] = peso;
+            tamano++;
+        }
+
+        void quitar(int slot) {
+            for (int j = 0; j < tamano; j++) {
+                if (slots[j] == slot) {
+                    tamano--;
+                    slots[j] = slots[tamano];
+                    pesos[j] = pesos[tamano];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Términos de un mismo largo, con su máscara en un arreglo contiguo para recorrerlos rápido
+    private static final class Cubeta {
+        Entradas[] entradas = new Entradas[4];
+        long[] mascaras = new long[4];
+        int tamano;
+
+        void agregar(Entradas nuevas) {
+            if (tamano == entradas.length) {
+                entradas = Arrays.copyOf(entradas, tamano * 2);
+                mascaras = Arrays.copyOf(mascaras, tamano * 2);
+            }
+            entradas[tamano] = nuevas;
+            mascaras[tamano] = mascara(nuevas.termino);
+            tamano++;
+        }
+
+        void quitar(Entradas viejas) {
+            for (int j = 0; j < tamano; j++) {
+                if (entradas[j] == viejas) {
+                    tamano--;
+                    entradas[j] = entradas[tamano];
+                    mascaras[j] = mascaras[tamano];
+                    entradas[tamano] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    // Acumuladores de una búsqueda, indexados por slot
+    private static final class Consulta {
+        final float[] total;
+        final float[] mejor;
+        final int[] terminosCalzados;
+        // Slots que calzaron con el último término puntuado
+        final int[] slots;
+        int tocados;
+
+        Consulta(int capacidad) {
+            total = new float[capacidad];
+            mejor = new float[capacidad];
+            terminosCalzados = new int[capacidad];
+            slots = new int[capacidad];
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnas primitivas del catálogo para las consultas por facetas: precio en
+ * centavos (long[]), categoría codificada con un diccionario (int[]) y
+ * disponibilidad como BitSet. La fila i es el i-ésimo producto del snapshot (por id).
+ * <p>
+ * Inmutable: se arma una vez por versión del snapshot ({@link CatalogoSnapshot#columnas()})
+ * y una consulta solo recorre arreglos, sin crear objetos por producto.
+ */
+public final class IndiceColumnar {
+
+    // Precio nulo: no calza con ningún filtro de precio ni cuenta en los rangos
+    public static final long SIN_PRECIO = Long.MIN_VALUE;
+    public static final int SIN_CATEGORIA = -1;
+
+    private final List<Producto> filas;
+    private final long[] ids;
+    private final long[] centavos;
+    private final int[] categorias;
+    private final BitSet disponibles;
+
+    // Diccionario de categorías: código -> nombre (como aparece en el primer producto) y clave normalizada -> código
+    private final String[] nombresCategoria;
+    private final Map<String, Integer> codigosCategoria;
+
+    // Filas ordenadas por precio y luego por id
+    private final int[] porPrecio;
+
+    private IndiceColumnar(List<Producto> filas) {
+        int n = filas.size();
+        this.filas = filas;
+        this.ids = new long[n];
+        this.centavos = new long[n];
+        this.categorias = new int[n];
+        this.disponibles = new BitSet(n);
+
+        List<String> nombres = new ArrayList<>();
+        Map<String, Integer> codigos = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Producto p = filas.get(i);
+            ids[i] = p.getId();
+            centavos[i] = p.getPrecio() != null ? centavos(p.getPrecio(), RoundingMode.HALF_UP) : SIN_PRECIO;
+            if (p.isDisponible()) {
+                disponibles.set(i);
+            }
+            if (p.getCategoria() == null) {
+                categorias[i] = SIN_CATEGORIA;
+            } else {
+                Integer codigo = codigos.putIfAbsent(CatalogoSnapshot.normalizarCategoria(p.getCategoria()), nombres.size());
+                if (codigo == null) {
+                    codigo = nombres.size();
+                    nombres.add(p.getCategoria());
+                }
+                categorias[i] = codigo;
+            }
+        }
+        this.nombresCategoria = nombres.toArray(new String[0]);
+        this.codigosCategoria = Map.copyOf(codigos);
+
+        // Las filas ya van por id, así que desempatar por fila es desempatar por id
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> centavos[a] != centavos[b] ? Long.compare(centavos[a], centavos[b]) : a - b);
+        this.porPrecio = new int[n];
+        for (int i = 0; i < n; i++) {
+            porPrecio[i] = orden[i];
+        }
+    }
+
+    /**
+     * @param filasPorId productos ordenados por id (p.ej. {@link CatalogoSnapshot#todos()})
+     */
+    public static IndiceColumnar de(List<Producto> filasPorId) {
+        return new IndiceColumnar(filasPorId);
+    }
+
+    public static long centavos(BigDecimal monto, RoundingMode redondeo) {
+        return monto.movePointRight(2).setScale(0, redondeo).longValueExact();
+    }
+
+    // ============================
+    // FILTRO Y CONTEOS
+    // ============================
+
+    /**
+     * Resultado de {@link #filtrar}: filas que cumplen todos los filtros y, para cada
+     * faceta, cuántas filas cumplen los demás filtros (sin contar el de la propia faceta).
+     *
+     * @param porCategoria  conteo por código de categoría
+     * @param porRango      conteo por rango de precio (rango i: desde limites[i-1] hasta limites[i])
+     * @param disponibles   filas disponibles / no disponibles según los filtros de categoría y precio
+     */
+    public record Filtrado(BitSet filas, int total, int[] porCategoria, int[] porRango,
+                           int disponibles, int noDisponibles) {
+    }
+
+    /**
+     * @param categoriasPedidas códigos de categoría aceptados (null: todas)
+     * @param disponible        true/false para filtrar por disponibilidad (null: ambas)
+     * @param minimo            precio mínimo en centavos, inclusive ({@link #SIN_PRECIO}: sin mínimo)
+     * @param maximo            precio máximo en centavos, inclusive (Long.MAX_VALUE: sin máximo)
+     * @param limitesRango      límites de los rangos de precio en centavos, ascendentes
+     */
+    public Filtrado filtrar(BitSet categoriasPedidas, Boolean disponible, long minimo, long maximo,
+                            long[] limitesRango) {
+        int n = ids.length;
+        BitSet coincidencias = new BitSet(n);
+        int[] porCategoria = new int[nombresCategoria.length];
+        int[] porRango = new int[limitesRango.length + 1];
+        int total = 0;
+        int conDisponible = 0;
+        int sinDisponible = 0;
+
+        for (int i = 0; i < n; i++) {
+            int categoria = categorias[i];
+            long precio = centavos[i];
+            boolean enCategoria = categoriasPedidas == null
+                    || (categoria != SIN_CATEGORIA && categoriasPedidas.get(categoria));
+            boolean enPrecio = precio == SIN_PRECIO
+                    ? minimo == SIN_PRECIO && maximo == Long.MAX_VALUE
+                    : precio >= minimo && precio <= maximo;
+            boolean estaDisponible = disponibles.get(i);
+
+            if (enCategoria && enPrecio) {
+                if (estaDisponible) {
+                    conDisponible++;
+                } else {
+                    sinDisponible++;
+                }
+            }
+            if (disponible != null && estaDisponible != disponible) {
+                continue;
+            }
+            if (enPrecio && categoria != SIN_CATEGORIA) {
+                porCategoria[categoria]++;
+            }
+            if (enCategoria && precio != SIN_PRECIO) {
+                porRango[rango(precio, limitesRango)]++;
+            }
+            if (enCategoria && enPrecio) {
+                coincidencias.set(i);
+                total++;
+            }
+        }
+        return new Filtrado(coincidencias, total, porCategoria, porRango, conDisponible, sinDisponible);
+    }
+
+    private static int rango(long precio, long[] limites) {
+        int posicion = Arrays.binarySearch(limites, precio);
+        // Un precio igual al límite cae en el rango que empieza en ese límite
+        return posicion >= 0 ? posicion + 1 : -(posicion + 1);
+    }
+
+    // ============================
+    // RECORRIDO ORDENADO
+    // ============================
+
+    /**
+     * Fila en la posición indicada del recorrido por id o por precio, ascendente o descendente.
+     */
+    public int fila(boolean porPrecio, boolean descendente, int posicion) {
+        int indice = descendente ? ids.length - 1 - posicion : posicion;
+        return porPrecio ? this.porPrecio[indice] : indice;
+    }
+
+    /**
+     * Primera posición del recorrido posterior a la clave (precio, id) del cursor;
+     * el producto del cursor puede ya no existir.
+     */
+    public int posicionDespuesDe(boolean porPrecio, boolean descendente, long centavosCursor, long idCursor) {
+        // Cantidad de filas con clave menor a la del cursor (búsqueda binaria sobre el orden ascendente)
+        int bajo = 0;
+        int alto = ids.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int fila = porPrecio ? this.porPrecio[medio] : medio;
+            if (comparar(fila, porPrecio, centavosCursor, idCursor) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        if (descendente) {
+            return ids.length - bajo;
+        }
+        boolean existe = bajo < ids.length
+                && comparar(porPrecio ? this.porPrecio[bajo] : bajo, porPrecio, centavosCursor, idCursor) == 0;
+        return existe ? bajo + 1 : bajo;
+    }
+
+    private int comparar(int fila, boolean porPrecio, long centavosCursor, long idCursor) {
+        if (porPrecio && centavos[fila] != centavosCursor) {
+            return Long.compare(centavos[fila], centavosCursor);
+        }
+        return Long.compare(ids[fila], idCursor);
+    }
+
+    // ============================
+    // ACCESO
+    // ============================
+    public int tamano() {
+        return ids.length;
+    }
+
+    public Producto producto(int fila) {
+        return filas.get(fila);
+    }
+
+    public long centavos(int fila) {
+        return centavos[fila];
+    }
+
+    public int cantidadCategorias() {
+        return nombresCategoria.length;
+    }
+
+    public String nombreCategoria(int codigo) {
+        return nombresCategoria[codigo];
+    }
+
+    /**
+     * Código de la categoría (sin distinguir mayúsculas) o {@link #SIN_CATEGORIA} si ningún producto la tiene.
+     */
+    public int codigoCategoria(String categoria) {
+        Integer codigo = codigosCategoria.get(CatalogoSnapshot.normalizarCategoria(categoria));
+        return codigo != null ? codigo : SIN_CATEGORIA;
+    }
+}
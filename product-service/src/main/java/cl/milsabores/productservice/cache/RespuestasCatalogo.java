@@ -0,0 +1,137 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas del catálogo ya codificadas (JSON + gzip) para la versión actual del snapshot.
+ * Cada vista se serializa una sola vez por versión; al cambiar el catálogo se descartan todas.
+ * Las ETags salen del contenido, así que coinciden entre instancias y reinicios.
+ */
+@Component
+public class RespuestasCatalogo {
+
+    private static final String TODOS = "todos";
+    private static final String DISPONIBLES = "disponibles";
+    private static final String CATEGORIA = "categoria:";
+
+    private final CatalogoCache catalogo;
+    private final ObjectMapper objectMapper;
+    private final int minimoBytesGzip;
+    private final Counter serializaciones;
+
+    private volatile Cuerpos actuales = new Cuerpos(-1);
+
+    public RespuestasCatalogo(CatalogoCache catalogo, ObjectMapper objectMapper,
+                              @Value("${productos.respuestas.gzip-min-bytes:512}") int minimoBytesGzip,
+                              MeterRegistry meterRegistry) {
+        this.catalogo = catalogo;
+        this.objectMapper = objectMapper;
+        this.minimoBytesGzip = minimoBytesGzip;
+        this.serializaciones = Counter.builder("productos.respuestas.serializations")
+                .description("Vistas del catálogo serializadas (una por vista y versión)")
+                .register(meterRegistry);
+    }
+
+    public CuerpoJson todos() {
+        return obtener(TODOS, CatalogoSnapshot::todos);
+    }
+
+    public CuerpoJson disponibles() {
+        return obtener(DISPONIBLES, CatalogoSnapshot::disponibles);
+    }
+
+    public CuerpoJson porCategoria(String categoria) {
+        CatalogoSnapshot snapshot = catalogo.obtener();
+        List<Producto> productos = snapshot.porCategoria(categoria);
+        if (productos.isEmpty()) {
+            // Categorías inexistentes no ocupan entradas
+            return obtener(snapshot, "vacio", s -> List.of());
+        }
+        return obtener(snapshot, CATEGORIA + CatalogoSnapshot.normalizarCategoria(categoria),
+                s -> s.porCategoria(categoria));
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private CuerpoJson obtener(String clave, Function<CatalogoSnapshot, List<Producto>> vista) {
+        return obtener(catalogo.obtener(), clave, vista);
+    }
+
+    private CuerpoJson obtener(CatalogoSnapshot snapshot, String clave,
+                               Function<CatalogoSnapshot, List<Producto>> vista) {
+        Cuerpos cuerpos = actuales;
+        if (cuerpos.version < snapshot.version()) {
+            cuerpos = new Cuerpos(snapshot.version());
+            actuales = cuerpos;
+        } else if (cuerpos.version > snapshot.version()) {
+            // Snapshot leído justo antes de un cambio: se responde sin cachear
+            return codificar(vista.apply(snapshot));
+        }
+        // computeIfAbsent: con varias peticiones simultáneas la vista se serializa una sola vez
+        return cuerpos.porClave.computeIfAbsent(clave, k -> codificar(vista.apply(snapshot)));
+    }
+
+    private CuerpoJson codificar(List<Producto> productos) {
+        serializaciones.increment();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(productos);
+            String etag = "\"" + huella(json) + "\"";
+            byte[] gzip = json.length >= minimoBytesGzip ? comprimir(json) : null;
+            if (gzip != null && gzip.length >= json.length) {
+                gzip = null;
+            }
+            String etagGzip = gzip != null ? etag.substring(0, etag.length() - 1) + "-gz\"" : null;
+            return new CuerpoJson(json, gzip, etag, etagGzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, datos.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private static String huella(byte[] datos) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(datos);
+            // 128 bits bastan para distinguir versiones del catálogo
+            return HexFormat.of().formatHex(sha, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Cuerpos {
+        final long version;
+        final Map<String, CuerpoJson> porClave = new ConcurrentHashMap<>();
+
+        Cuerpos(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cl.milsabores.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Con db.lectura.habilitado=true reemplaza el DataSource de Spring Boot por dos pools Hikari,
+ * "primario" (spring.datasource.*) y "lectura" (db.lectura.hikari.*: una réplica, o la misma
+ * base con un pool aparte), y un DataSource principal que rutea entre ambos
+ * ({@link RuteoLecturaEscritura}). Cada pool pasa por el bulkhead y la instrumentación de SQL
+ * por separado, así las lecturas no ocupan los permisos ni las conexiones de las escrituras,
+ * y las métricas hikaricp.* y db.bulkhead.* salen por pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "db.lectura.habilitado", havingValue = "true")
+public class BaseDatosLectura {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propiedades) {
+        HikariDataSource pool = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(RuteoLecturaEscritura.PRIMARIO);
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("db.lectura.hikari")
+    public HikariDataSource dataSourceLectura() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(RuteoLecturaEscritura.LECTURA);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceLectura") DataSource lectura,
+                                 MeterRegistry meterRegistry) {
+        RuteoLecturaEscritura ruteo = new RuteoLecturaEscritura(primario, lectura, meterRegistry);
+        ruteo.afterPropertiesSet();
+        LazyConnectionDataSourceProxy perezoso = new LazyConnectionDataSourceProxy();
+        perezoso.setTargetDataSource(ruteo);
+        // Valores por defecto conocidos: sin ellos el proxy pide una conexión al iniciar para averiguarlos
+        perezoso.setDefaultAutoCommit(true);
+        perezoso.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return perezoso;
+    }
+}
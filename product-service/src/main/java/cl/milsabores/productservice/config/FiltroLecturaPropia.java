@@ -0,0 +1,91 @@
+package cl.milsabores.productservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lectura de las propias escrituras con el pool de lectura habilitado: una request de
+ * escritura (POST/PUT/PATCH/DELETE) lee todo del primario y deja la cookie
+ * {@value #COOKIE} con el instante hasta el que las requests siguientes del mismo
+ * cliente también leen del primario ({@code db.lectura.ventana-escritura-ms}), el
+ * tiempo que se le da a la réplica para ponerse al día. Al llevar el instante y no
+ * un id, sirve en cualquier instancia del servicio. El valor lo envía el cliente: uno
+ * más lejano que una ventana desde ahora no lo pudo dejar este filtro y se ignora.
+ */
+@Component
+@ConditionalOnProperty(name = "db.lectura.habilitado", havingValue = "true")
+public class FiltroLecturaPropia extends OncePerRequestFilter {
+
+    static final String COOKIE = "ms_primario_hasta";
+
+    private final long ventanaMs;
+
+    public FiltroLecturaPropia(@Value("${db.lectura.ventana-escritura-ms:5000}") long ventanaMs) {
+        this.ventanaMs = ventanaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (esEscritura(request)) {
+            long hasta = System.currentTimeMillis() + ventanaMs;
+            RuteoLecturaEscritura.primarioHasta(hasta);
+            // Antes de la cadena: después la respuesta puede estar ya enviada
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(hasta))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(Duration.ofMillis(ventanaMs))
+                    .build()
+                    .toString());
+        } else {
+            Long hasta = leerCookie(request);
+            if (hasta != null) {
+                RuteoLecturaEscritura.primarioHasta(hasta);
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RuteoLecturaEscritura.limpiar();
+        }
+    }
+
+    private static boolean esEscritura(HttpServletRequest request) {
+        HttpMethod metodo = HttpMethod.valueOf(request.getMethod());
+        return metodo == HttpMethod.POST || metodo == HttpMethod.PUT
+                || metodo == HttpMethod.PATCH || metodo == HttpMethod.DELETE;
+    }
+
+    Long leerCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                long hasta;
+                try {
+                    hasta = Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                // Sin esto una cookie editada dejaría todas las lecturas de ese cliente en el primario
+                return hasta <= System.currentTimeMillis() + ventanaMs ? hasta : null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package cl.milsabores.productservice.config;
+
+import cl.milsabores.productservice.model.Producto;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completa el paso de ids IDENTITY a PRODUCTOS_SEQ en una tabla que ya tenía filas.
+ * <p>
+ * La migración V2__secuencia_y_version crea la secuencia desde 1 y quita el IDENTITY
+ * de la columna; los ids ya entregados por IDENTITY no pueden volver a salir de ella.
+ * Corre al crear el bean (después de Flyway y antes de que el servidor acepte requests)
+ * y adelanta la secuencia más allá del mayor id existente; si ya lo está no hace nada.
+ * Se desactiva con productos.id.ajustar-secuencia=false.
+ */
+@Component
+@ConditionalOnProperty(name = "productos.id.ajustar-secuencia", havingValue = "true", matchIfMissing = true)
+public class MigracionSecuenciaProductos {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionSecuenciaProductos.class);
+
+    static final String SECUENCIA = "productos_seq";
+
+    private final JdbcTemplate jdbc;
+    private final Dialect dialect;
+
+    public MigracionSecuenciaProductos(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void migrar() {
+        try {
+            ajustarSecuencia();
+        } catch (DataAccessException e) {
+            log.warn("No se pudo ajustar la secuencia de ids de productos", e);
+        }
+    }
+
+    // Los ids ya entregados por IDENTITY no pueden volver a salir de la secuencia
+    private void ajustarSecuencia() {
+        Long maximo = jdbc.queryForObject("select max(id) from productos", Long.class);
+        if (maximo == null) {
+            return;
+        }
+        String siguienteValor = dialect.getSequenceSupport().getSequenceNextValString(SECUENCIA);
+        long actual = jdbc.queryForObject(siguienteValor, Long.class);
+        // El optimizador pooled usa los ids (valor - IDS_POR_RESERVA, valor] de cada valor que lee
+        long requerido = maximo + Producto.IDS_POR_RESERVA;
+        if (actual >= requerido) {
+            return;
+        }
+
+        // Un solo salto en vez de pedir nextval (requerido - actual) / IDS_POR_RESERVA veces
+        jdbc.execute("alter sequence " + SECUENCIA + " increment by " + (requerido - actual));
+        try {
+            jdbc.queryForObject(siguienteValor, Long.class);
+        } finally {
+            jdbc.execute("alter sequence " + SECUENCIA + " increment by " + Producto.IDS_POR_RESERVA);
+        }
+        log.info("{} adelantada sobre el id máximo {}", SECUENCIA, maximo);
+    }
+}
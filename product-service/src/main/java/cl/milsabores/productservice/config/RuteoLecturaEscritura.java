@@ -0,0 +1,99 @@
+package cl.milsabores.productservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Envía las conexiones de las transacciones de solo lectura ({@code @Transactional(readOnly = true)},
+ * incluidas las consultas de los repositorios fuera de una transacción) al pool de lectura, y todo
+ * lo demás (escrituras, JDBC sin transacción) al primario.
+ * <p>
+ * Las lecturas van igual al primario mientras el hilo tenga una ventana de "lectura propia"
+ * abierta (ver {@link FiltroLecturaPropia}) o dentro de {@link #enPrimario(Supplier)}.
+ * Debe ir detrás de un LazyConnectionDataSourceProxy: la transacción toma la conexión
+ * recién en la primera sentencia, cuando ya se sabe si es de solo lectura.
+ */
+public class RuteoLecturaEscritura extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String LECTURA = "lectura";
+
+    // Instante (epoch ms) hasta el que las lecturas de este hilo van al primario
+    private static final ThreadLocal<Long> PRIMARIO_HASTA = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORZAR_PRIMARIO = new ThreadLocal<>();
+
+    private final Counter escrituras;
+    private final Counter lecturas;
+    private final Counter lecturasPropias;
+    private final Counter forzadas;
+
+    public RuteoLecturaEscritura(DataSource primario, DataSource lectura, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARIO, primario, LECTURA, lectura));
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        this.escrituras = contador(meterRegistry, PRIMARIO, "write");
+        this.lecturas = contador(meterRegistry, LECTURA, "read-only");
+        this.lecturasPropias = contador(meterRegistry, PRIMARIO, "read-your-writes");
+        this.forzadas = contador(meterRegistry, PRIMARIO, "forced");
+    }
+
+    /**
+     * Ejecuta {@code accion} con todas sus lecturas en el primario (p.ej. la recarga del
+     * catálogo, que no puede retroceder a datos que la réplica todavía no recibe).
+     * Sin el pool de lectura habilitado simplemente ejecuta {@code accion}.
+     */
+    public static <T> T enPrimario(Supplier<T> accion) {
+        Boolean anterior = FORZAR_PRIMARIO.get();
+        FORZAR_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return accion.get();
+        } finally {
+            if (anterior == null) {
+                FORZAR_PRIMARIO.remove();
+            } else {
+                FORZAR_PRIMARIO.set(anterior);
+            }
+        }
+    }
+
+    static void primarioHasta(long epochMs) {
+        PRIMARIO_HASTA.set(epochMs);
+    }
+
+    static void limpiar() {
+        PRIMARIO_HASTA.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            escrituras.increment();
+            return PRIMARIO;
+        }
+        if (Boolean.TRUE.equals(FORZAR_PRIMARIO.get())) {
+            forzadas.increment();
+            return PRIMARIO;
+        }
+        Long hasta = PRIMARIO_HASTA.get();
+        if (hasta != null && System.currentTimeMillis() < hasta) {
+            lecturasPropias.increment();
+            return PRIMARIO;
+        }
+        lecturas.increment();
+        return LECTURA;
+    }
+
+    private static Counter contador(MeterRegistry registry, String pool, String motivo) {
+        return Counter.builder("db.routing.connections")
+                .description("Conexiones entregadas por el ruteo lectura/escritura, por pool y motivo")
+                .tag("pool", pool)
+                .tag("reason", motivo)
+                .register(registry);
+    }
+}
@@ -0,0 +1,109 @@
+package cl.milsabores.productservice.config;
+
+import jakarta.annotation.PostConstruct;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Siembra la base del perfil "embebido" con {@code embebido.semilla.productos} productos
+ * (ids 1..N, 8 categorías, 1 de cada 7 no disponible) con JDBC batch, y luego adelanta
+ * PRODUCTOS_SEQ para que los productos creados después no choquen con esos ids.
+ * <p>
+ * Corre al crear el bean, antes de que el servidor acepte requests y antes de la carga
+ * del catálogo en memoria. Si la tabla ya tiene productos no hace nada.
+ * <p>
+ * Con el pool de lectura habilitado (p.ej. perfiles "embebido,replica") también migra y
+ * siembra la base de lectura, que localmente es otra H2 sin replicación: queda igual al
+ * primario solo hasta la primera escritura.
+ */
+@Component
+@Profile("embebido")
+public class SemillaEmbebida {
+
+    private static final Logger log = LoggerFactory.getLogger(SemillaEmbebida.class);
+
+    private static final List<String> CATEGORIAS = List.of(
+            "Tortas Cuadradas", "Tortas Circulares", "Postres Individuales", "Productos Sin Azúcar",
+            "Pastelería Tradicional", "Productos Sin Gluten", "Productos Veganos", "Tortas Especiales");
+    private static final List<String> SABORES = List.of(
+            "Chocolate", "Frutilla", "Manjar", "Tres Leches", "Vainilla", "Limón", "Frambuesa", "Nuez");
+    private static final int FILAS_POR_LOTE = 1_000;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectProvider<MigracionSecuenciaProductos> migracionSecuencia;
+    private final ObjectProvider<DataSource> dataSourceLectura;
+    private final int productos;
+
+    public SemillaEmbebida(JdbcTemplate jdbc,
+                           ObjectProvider<MigracionSecuenciaProductos> migracionSecuencia,
+                           @Qualifier("dataSourceLectura") ObjectProvider<DataSource> dataSourceLectura,
+                           @Value("${embebido.semilla.productos:50000}") int productos) {
+        this.jdbc = jdbc;
+        this.migracionSecuencia = migracionSecuencia;
+        this.dataSourceLectura = dataSourceLectura;
+        this.productos = productos;
+    }
+
+    @PostConstruct
+    public void sembrar() {
+        if (productos <= 0) {
+            return;
+        }
+        if (insertar(jdbc, "primario")) {
+            migracionSecuencia.ifAvailable(MigracionSecuenciaProductos::migrar);
+        }
+        dataSourceLectura.ifAvailable(lectura -> {
+            // Si apunta a la misma base que el primario, Flyway y la siembra no hacen nada la segunda vez
+            Flyway.configure().dataSource(lectura).locations("classpath:db/migration/h2").load().migrate();
+            insertar(new JdbcTemplate(lectura), "base de lectura");
+        });
+    }
+
+    /**
+     * @return false si la tabla ya tenía productos
+     */
+    private boolean insertar(JdbcTemplate destino, String base) {
+        Long existentes = destino.queryForObject("select count(*) from productos", Long.class);
+        if (existentes != null && existentes > 0) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        String sql = "insert into productos (id, nombre, descripcion, precio, categoria, disponible, url_imagen, version) "
+                + "values (?, ?, ?, ?, ?, ?, ?, 0)";
+        List<Object[]> lote = new ArrayList<>(FILAS_POR_LOTE);
+        for (long id = 1; id <= productos; id++) {
+            String categoria = CATEGORIAS.get((int) (id % CATEGORIAS.size()));
+            String sabor = SABORES.get((int) (id / CATEGORIAS.size() % SABORES.size()));
+            lote.add(new Object[]{
+                    id,
+                    categoria.startsWith("Tortas") ? "Torta de " + sabor + " " + id : sabor + " " + id,
+                    categoria + " de " + sabor.toLowerCase() + ", receta número " + id + " de Mil Sabores",
+                    BigDecimal.valueOf(1_000 + (id % 50) * 500),
+                    categoria,
+                    id % 7 != 0,
+                    "https://cdn.milsabores.cl/productos/" + id + ".jpg"
+            });
+            if (lote.size() == FILAS_POR_LOTE) {
+                destino.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            destino.batchUpdate(sql, lote);
+        }
+        log.info("{} productos de prueba ({}) en {} ms", productos, base, (System.nanoTime() - inicio) / 1_000_000);
+        return true;
+    }
+}
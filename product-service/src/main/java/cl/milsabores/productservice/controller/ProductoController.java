@@ -1,13 +1,31 @@
 package cl.milsabores.productservice.controller;
 
+import cl.milsabores.productservice.cache.CuerpoJson;
+import cl.milsabores.productservice.cache.EventosCatalogo;
+import cl.milsabores.productservice.dto.CambioDisponibilidadRequest;
+import cl.milsabores.productservice.dto.ResultadoCargaDto;
+import cl.milsabores.productservice.exception.ConflictoVersionException;
+import cl.milsabores.productservice.exception.ProductoNoEncontradoException;
 import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.service.ExportadorCatalogo;
 import cl.milsabores.productservice.service.ProductoService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/productos")
@@ -15,15 +33,118 @@ import java.util.List;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ExportadorCatalogo exportadorCatalogo;
+    private final EventosCatalogo eventosCatalogo;
+    private final ObjectMapper objectMapper;
 
+    // Los listados van paginados por defecto (cursor keyset, ver PaginaProductos), con
+    // productos.paginacion.tamano-max como tope. La lista completa, pre-serializada con ETag
+    // y 304, solo se entrega pidiéndola explícitamente con completo=true.
     @GetMapping
-    public ResponseEntity<List<Producto>> listarTodos() {
-        return ResponseEntity.ok(productoService.listarTodos());
+    public ResponseEntity<?> listarTodos(
+            @RequestParam(defaultValue = "false") boolean completo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (completo) {
+            return responderJson(productoService.listarTodosJson(), ifNoneMatch, acceptEncoding);
+        }
+        try {
+            return ResponseEntity.ok(productoService.paginarTodos(cursor, tamano, orden, direccion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/disponibles")
-    public ResponseEntity<List<Producto>> listarDisponibles() {
-        return ResponseEntity.ok(productoService.listarDisponibles());
+    public ResponseEntity<?> listarDisponibles(
+            @RequestParam(defaultValue = "false") boolean completo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (completo) {
+            return responderJson(productoService.listarDisponiblesJson(), ifNoneMatch, acceptEncoding);
+        }
+        try {
+            return ResponseEntity.ok(productoService.paginarDisponibles(cursor, tamano, orden, direccion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Cambios del catálogo en vivo (creado, actualizado, disponibilidad, eliminado) en vez de sondear los listados.
+    // Al reconectar, EventSource envía Last-Event-ID y se reenvía lo que faltó.
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId) {
+        return eventosCatalogo.suscribir(ultimoId);
+    }
+
+    // Exportación completa en NDJSON para procesos batch: se escribe mientras se lee la tabla.
+    // Con productos.exportacion.concurrentes-max exportaciones en curso se responde 503 con Retry-After.
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportar(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                         HttpServletResponse response) throws IOException {
+        if (!exportadorCatalogo.reservarCupo()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("Demasiadas exportaciones en curso, intenta nuevamente en unos segundos");
+            return;
+        }
+        try {
+            escribirExportacion(acceptEncoding, response);
+        } finally {
+            exportadorCatalogo.liberarCupo();
+        }
+    }
+
+    private void escribirExportacion(String acceptEncoding, HttpServletResponse response) throws IOException {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        exportadorCatalogo.exportar(response.getOutputStream(), gzip);
+    }
+
+    // Filtros combinados con conteos por faceta, p.ej.
+    // ?categoria=tortas&categoria=panes&disponible=true&precioMin=5000&precioMax=20000&orden=precio
+    @GetMapping("/facetas")
+    public ResponseEntity<?> filtrarFacetas(
+            @RequestParam(required = false) List<String> categoria,
+            @RequestParam(required = false) Boolean disponible,
+            @RequestParam(required = false) BigDecimal precioMin,
+            @RequestParam(required = false) BigDecimal precioMax,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion) {
+        try {
+            return ResponseEntity.ok(productoService.filtrarFacetas(categoria, disponible, precioMin, precioMax,
+                    cursor, tamano, orden, direccion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Búsqueda por texto para el buscador y el autocompletado de la app: ?q=past&limite=10
+    @GetMapping("/search")
+    public ResponseEntity<?> buscar(@RequestParam String q,
+                                    @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(productoService.buscar(q, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -31,14 +152,29 @@ public class ProductoController {
         try {
             Producto producto = productoService.buscarPorId(id);
             return ResponseEntity.ok(producto);
-        } catch (RuntimeException e) {
+        } catch (ProductoNoEncontradoException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<Producto>> obtenerPorCategoria(@PathVariable String categoria) {
-        return ResponseEntity.ok(productoService.buscarPorCategoria(categoria));
+    public ResponseEntity<?> obtenerPorCategoria(
+            @PathVariable String categoria,
+            @RequestParam(defaultValue = "false") boolean completo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (completo) {
+            return responderJson(productoService.buscarPorCategoriaJson(categoria), ifNoneMatch, acceptEncoding);
+        }
+        try {
+            return ResponseEntity.ok(productoService.paginarPorCategoria(categoria, cursor, tamano, orden, direccion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping
@@ -47,14 +183,53 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(creado);
     }
 
+    // Carga masiva (p.ej. lista de precios de un proveedor): arreglo JSON o NDJSON.
+    // Filas sin id se crean y filas con id actualizan ese producto; el reporte trae el resultado de cada fila.
+    @PostMapping(value = "/carga", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> cargar(InputStream cuerpo) {
+        try (MappingIterator<Producto> filas = objectMapper.readerFor(Producto.class).readValues(cuerpo)) {
+            ResultadoCargaDto resultado = productoService.cargar(filas);
+            return ResponseEntity.ok(resultado);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("El cuerpo no es un JSON/NDJSON válido");
+        }
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Producto> actualizar(@PathVariable Long id,
-                                               @RequestBody Producto producto) {
+    public ResponseEntity<?> actualizar(@PathVariable Long id,
+                                        @RequestBody Producto producto) {
         try {
             Producto actualizado = productoService.actualizar(id, producto);
             return ResponseEntity.ok(actualizado);
-        } catch (RuntimeException e) {
+        } catch (ConflictoVersionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (ProductoNoEncontradoException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Solo los campos presentes en el cuerpo; "version" opcional para detectar conflictos
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> actualizarParcial(@PathVariable Long id,
+                                               @RequestBody Map<String, Object> cambios) {
+        try {
+            return ResponseEntity.ok(productoService.actualizarParcial(id, cambios));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ProductoNoEncontradoException e) {
             return ResponseEntity.notFound().build();
+        } catch (ConflictoVersionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    // Disponibilidad de varios productos (por ids o por categoría) en una sola sentencia
+    @PatchMapping("/disponibilidad")
+    public ResponseEntity<?> cambiarDisponibilidad(@RequestBody CambioDisponibilidadRequest request) {
+        try {
+            return ResponseEntity.ok(productoService.cambiarDisponibilidad(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
@@ -63,8 +238,52 @@ public class ProductoController {
         try {
             productoService.eliminar(id);
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
+        } catch (ProductoNoEncontradoException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // ============================
+    // RESPUESTAS PRE-SERIALIZADAS
+    // ============================
+    private static ResponseEntity<byte[]> responderJson(CuerpoJson cuerpo, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = cuerpo.gzip() != null && aceptaGzip(acceptEncoding);
+        String etag = gzip ? cuerpo.etagGzip() : cuerpo.etag();
+
+        // no-cache: el cliente puede guardar la respuesta, pero debe revalidarla (304 si no cambió)
+        if (cuerpo.coincideCon(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(gzip ? cuerpo.gzip().length : cuerpo.json().length)
+                .body(gzip ? cuerpo.gzip() : cuerpo.json());
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String parte : acceptEncoding.split(",")) {
+            String[] valores = parte.trim().split(";");
+            String codificacion = valores[0].trim();
+            if (codificacion.equalsIgnoreCase("gzip") || codificacion.equals("*")) {
+                // "gzip;q=0" significa que no se acepta
+                return valores.length < 2 || !valores[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
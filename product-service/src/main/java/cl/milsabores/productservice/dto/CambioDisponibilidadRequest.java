@@ -0,0 +1,13 @@
+package cl.milsabores.productservice.dto;
+
+import java.util.List;
+
+/**
+ * Cambio masivo de disponibilidad: se indica una lista de ids o una categoría (no ambas).
+ */
+public record CambioDisponibilidadRequest(
+        List<Long> ids,
+        String categoria,
+        Boolean disponible
+) {
+}
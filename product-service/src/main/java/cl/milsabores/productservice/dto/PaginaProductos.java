@@ -0,0 +1,18 @@
+package cl.milsabores.productservice.dto;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.util.List;
+
+/**
+ * Página de un listado de productos. {@code siguienteCursor} es null en la última página;
+ * para pedir la siguiente se envía tal cual en el parámetro {@code cursor}.
+ */
+public record PaginaProductos(
+        List<Producto> items,
+        String siguienteCursor,
+        int tamano,
+        String orden,
+        String direccion
+) {
+}
@@ -0,0 +1,32 @@
+package cl.milsabores.productservice.dto;
+
+import java.util.List;
+
+/**
+ * Reporte de una carga masiva de productos, con el resultado de cada fila.
+ */
+public record ResultadoCargaDto(
+        int total,
+        int creados,
+        int actualizados,
+        int rechazados,
+        List<Fila> filas
+) {
+
+    public static final String CREADO = "CREADO";
+    public static final String ACTUALIZADO = "ACTUALIZADO";
+    public static final String RECHAZADO = "RECHAZADO";
+
+    /**
+     * @param fila número de fila en el archivo (desde 1)
+     * @param id   id asignado (creados) o recibido (actualizados y rechazados)
+     */
+    public record Fila(
+            int fila,
+            Long id,
+            String nombre,
+            String estado,
+            String detalle
+    ) {
+    }
+}
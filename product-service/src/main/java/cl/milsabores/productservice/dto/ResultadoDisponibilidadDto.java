@@ -0,0 +1,9 @@
+package cl.milsabores.productservice.dto;
+
+/**
+ * @param actualizados productos cuya disponibilidad cambió (los que ya tenían el valor pedido no se tocan)
+ */
+public record ResultadoDisponibilidadDto(
+        int actualizados
+) {
+}
@@ -0,0 +1,38 @@
+package cl.milsabores.productservice.dto;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Página de una consulta por facetas junto con los conteos de cada faceta.
+ * Cada conteo aplica todos los filtros pedidos menos el de su propia faceta,
+ * así el cliente puede mostrar cuántos productos quedarían al cambiarla.
+ * {@code siguienteCursor} funciona igual que en {@link PaginaProductos}.
+ */
+public record ResultadoFacetas(
+        List<Producto> items,
+        String siguienteCursor,
+        int tamano,
+        String orden,
+        String direccion,
+        int total,
+        List<Categoria> categorias,
+        List<RangoPrecio> precios,
+        Disponibilidad disponibilidad
+) {
+
+    public record Categoria(String categoria, int cantidad) {
+    }
+
+    /**
+     * @param desde inclusive (null: sin mínimo)
+     * @param hasta exclusive (null: sin máximo)
+     */
+    public record RangoPrecio(BigDecimal desde, BigDecimal hasta, int cantidad) {
+    }
+
+    public record Disponibilidad(int disponibles, int noDisponibles) {
+    }
+}
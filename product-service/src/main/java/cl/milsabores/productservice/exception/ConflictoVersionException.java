@@ -0,0 +1,23 @@
+package cl.milsabores.productservice.exception;
+
+/**
+ * La versión enviada no es la vigente: otro cliente modificó el producto después
+ * de que este lo leyera. El controlador responde 409 con la versión actual.
+ */
+public class ConflictoVersionException extends RuntimeException {
+
+    private final Long versionActual;
+
+    /**
+     * @param versionActual versión vigente, o null si no se conoce (conflicto detectado al escribir)
+     */
+    public ConflictoVersionException(Long id, Long versionActual) {
+        super("El producto " + id + " fue modificado por otro usuario"
+                + (versionActual != null ? " (versión actual: " + versionActual + ")" : ""));
+        this.versionActual = versionActual;
+    }
+
+    public Long getVersionActual() {
+        return versionActual;
+    }
+}
@@ -0,0 +1,11 @@
+package cl.milsabores.productservice.exception;
+
+/**
+ * El producto pedido no existe. El controlador responde 404.
+ */
+public class ProductoNoEncontradoException extends RuntimeException {
+
+    public ProductoNoEncontradoException(Long id) {
+        super("Producto no encontrado: " + id);
+    }
+}
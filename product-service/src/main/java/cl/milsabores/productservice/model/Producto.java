@@ -2,6 +2,7 @@ package cl.milsabores.productservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -10,11 +11,16 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Producto {
 
+    // Ids reservados por cada consulta a la secuencia (optimizador pooled de Hibernate)
+    public static final int IDS_POR_RESERVA = 50;
+
+    // Secuencia en vez de IDENTITY: Hibernate conoce el id antes del INSERT y puede agruparlos en JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = IDS_POR_RESERVA)
     private Long id;
 
     @Column(nullable = false)
@@ -32,4 +38,11 @@ public class Producto {
 
     // URL de imagen (más simple para tu app móvil)
     private String urlImagen;
+
+    // Control optimista: cada UPDATE exige la versión leída y la incrementa (409 si otro la cambió antes).
+    // El default llena las filas existentes al agregar la columna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
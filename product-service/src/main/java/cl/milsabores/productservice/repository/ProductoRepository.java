@@ -1,13 +1,52 @@
 package cl.milsabores.productservice.repository;
 
 import cl.milsabores.productservice.model.Producto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
     List<Producto> findByDisponibleTrue();
 
     List<Producto> findByCategoriaIgnoreCase(String categoria);
+
+    /**
+     * Recorre toda la tabla sin materializarla (requiere una transacción abierta
+     * y cerrar el Stream). Las filas llegan del driver en bloques de FETCH_SIZE_EXPORTACION
+     * y las entidades son de solo lectura (sin snapshot para dirty checking).
+     */
+    @Query("select p from Producto p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACION),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Producto> streamTodosPorId();
+
+    /**
+     * Cambia la disponibilidad en un solo UPDATE (requiere una transacción abierta).
+     * Solo toca, e incrementa la versión de, los productos que tenían otro valor.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Producto p set p.disponible = :disponible, p.version = p.version + 1 "
+            + "where p.id in :ids and p.disponible <> :disponible")
+    int cambiarDisponibilidad(@Param("ids") Collection<Long> ids, @Param("disponible") boolean disponible);
+
+    // upper() igual que findByCategoriaIgnoreCase: ambas usan el índice IX_PRODUCTOS_CATEGORIA
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Producto p set p.disponible = :disponible, p.version = p.version + 1 "
+            + "where upper(p.categoria) = upper(:categoria) and p.disponible <> :disponible")
+    int cambiarDisponibilidadPorCategoria(@Param("categoria") String categoria,
+                                          @Param("disponible") boolean disponible);
+
+    int FETCH_SIZE_EXPORTACION = 500;
 }
@@ -0,0 +1,66 @@
+package cl.milsabores.productservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Exige un JWT válido de auth-service en toda solicitud que no sea de lectura
+ * (GET, HEAD, OPTIONS), sin mirar la ruta: las variantes que Spring MVC igual
+ * resuelve al mismo handler ("/api;x=1/productos", "/%61pi/productos") no pueden
+ * saltarse la verificación. Las lecturas no pasan por este filtro.
+ * <p>
+ * El registro en auth-service está abierto a cualquiera y siempre asigna el rol cliente,
+ * así que además se exige el claim "rol" con un rol de personal (distinto a cliente, el
+ * mismo criterio de la importación de usuarios): token inválido 401, rol cliente o sin rol 403.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtAuthFilter extends OncePerRequestFilter {
+
+    // Atributo del request con el RUT del usuario autenticado
+    public static final String ATRIBUTO_RUT = "auth.rut";
+
+    private static final String PREFIJO_BEARER = "Bearer ";
+    private static final int ROL_CLIENTE = 1;
+
+    private final JwtVerificador jwtVerificador;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return "GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        Optional<TokenVerificado> token = header != null && header.startsWith(PREFIJO_BEARER)
+                ? jwtVerificador.verificar(header.substring(PREFIJO_BEARER.length()).trim())
+                : Optional.empty();
+
+        if (token.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido o ausente");
+            return;
+        }
+
+        Integer rol = token.get().rol();
+        if (rol == null || rol == ROL_CLIENTE) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Se requiere un rol de personal");
+            return;
+        }
+
+        request.setAttribute(ATRIBUTO_RUT, token.get().rut());
+        filterChain.doFilter(request, response);
+    }
+}
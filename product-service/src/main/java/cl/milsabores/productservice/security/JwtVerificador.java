@@ -0,0 +1,127 @@
+package cl.milsabores.productservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Verifica localmente los JWT emitidos por auth-service (HS256, misma jwt.secret).
+ * No hay llamadas a auth-service: la llave y el parser se arman una vez y los
+ * tokens válidos quedan en cache hasta su propia expiración.
+ */
+@Component
+public class JwtVerificador {
+
+    private final JwtParser parser;
+    private final int maxEntradas;
+    private final LongSupplier reloj;
+
+    // token -> datos verificados; nunca se devuelve una entrada ya expirada
+    private final Map<String, TokenVerificado> verificados = new ConcurrentHashMap<>();
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    @Autowired
+    public JwtVerificador(@Value("${jwt.secret}") String secreto,
+                          @Value("${jwt.cache.max-entries:10000}") int maxEntradas,
+                          MeterRegistry meterRegistry) {
+        this(secreto, maxEntradas, System::currentTimeMillis);
+
+        FunctionCounter.builder("cache.gets", aciertos, AtomicLong::get)
+                .tag("cache", "jwt")
+                .tag("result", "hit")
+                .description("Tokens JWT resueltos desde la cache de verificados")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", fallos, AtomicLong::get)
+                .tag("cache", "jwt")
+                .tag("result", "miss")
+                .description("Tokens JWT que requirieron verificar la firma")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", verificados, Map::size)
+                .tag("cache", "jwt")
+                .register(meterRegistry);
+    }
+
+    JwtVerificador(String secreto, int maxEntradas, LongSupplier reloj) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)))
+                .setClock(() -> new Date(reloj.getAsLong()))
+                .build();
+        this.maxEntradas = Math.max(1, maxEntradas);
+        this.reloj = reloj;
+    }
+
+    /**
+     * @return datos del token, o vacío si la firma no es válida, expiró o no trae RUT
+     */
+    public Optional<TokenVerificado> verificar(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        long ahora = reloj.getAsLong();
+        TokenVerificado enCache = verificados.get(token);
+        if (enCache != null) {
+            if (enCache.expiraEnMillis() > ahora) {
+                aciertos.incrementAndGet();
+                return Optional.of(enCache);
+            }
+            verificados.remove(token, enCache);
+        }
+        fallos.incrementAndGet();
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        // Sin expiración no se guarda: la cache no debe extender su validez
+        long expiraEn = claims.getExpiration() != null ? claims.getExpiration().getTime() : ahora;
+        TokenVerificado verificado = new TokenVerificado(claims.getSubject(), claims.get("email", String.class),
+                claims.get("rol", Integer.class), expiraEn);
+        if (expiraEn > ahora) {
+            guardar(token, verificado, ahora);
+        }
+        return Optional.of(verificado);
+    }
+
+    int tamanoCache() {
+        return verificados.size();
+    }
+
+    // ============================
+    // INTERNOS
+    // ============================
+    private void guardar(String token, TokenVerificado verificado, long ahora) {
+        if (verificados.size() >= maxEntradas) {
+            verificados.values().removeIf(t -> t.expiraEnMillis() <= ahora);
+            // Sigue llena de tokens vigentes: se vacía; solo cuesta volver a verificar
+            if (verificados.size() >= maxEntradas) {
+                verificados.clear();
+            }
+        }
+        verificados.put(token, verificado);
+    }
+}
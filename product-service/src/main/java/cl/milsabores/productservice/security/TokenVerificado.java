@@ -0,0 +1,12 @@
+package cl.milsabores.productservice.security;
+
+/**
+ * Datos de un token emitido por auth-service cuya firma ya fue verificada.
+ */
+public record TokenVerificado(
+        String rut,
+        String email,
+        Integer rol,
+        long expiraEnMillis
+) {
+}
@@ -0,0 +1,39 @@
+package cl.milsabores.productservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición después del último producto entregado: orden, dirección, clave de orden e id.
+ * Se envía al cliente como texto Base64 opaco.
+ */
+record CursorPagina(OrdenProductos orden, boolean descendente, String valor, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // Formato interno: orden:a|d:id:valor (el valor va al final porque puede contener ':')
+    String codificar() {
+        String texto = orden.nombre() + ":" + (descendente ? "d" : "a") + ":" + id + ":" + (valor != null ? "=" + valor : "");
+        return ENCODER.encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorPagina decodificar(String cursor) {
+        try {
+            String[] partes = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+            if (partes.length != 4 || !(partes[1].equals("a") || partes[1].equals("d"))) {
+                throw new IllegalArgumentException();
+            }
+            if (!partes[3].isEmpty() && !partes[3].startsWith("=")) {
+                throw new IllegalArgumentException();
+            }
+            String valor = partes[3].isEmpty() ? null : partes[3].substring(1);
+            OrdenProductos orden = OrdenProductos.desde(partes[0]);
+            long id = Long.parseLong(partes[2]);
+            orden.referencia(valor, id);
+            return new CursorPagina(orden, partes[1].equals("d"), valor, id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cl.milsabores.productservice.service;
+
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación completa de la tabla de productos en NDJSON (un producto por línea).
+ * Las filas se leen con un Stream del repositorio y se escriben directo a la salida:
+ * la memoria usada no depende del tamaño de la tabla.
+ * <p>
+ * Cada exportación ocupa una conexión (y su transacción de solo lectura) durante toda la
+ * descarga, que dura lo que tarde el cliente en leerla. Por eso se admiten a lo más
+ * {@code productos.exportacion.concurrentes-max} a la vez: el que llama reserva un cupo
+ * con {@link #reservarCupo()} antes de {@link #exportar} y lo libera al terminar; sin cupo
+ * se responde 503 en lugar de dejar el pool sin conexiones para el resto de los endpoints.
+ */
+@Service
+public class ExportadorCatalogo {
+
+    private final ProductoRepository repo;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final Counter filasExportadas;
+    private final Counter rechazadas;
+    private final Semaphore cupos;
+
+    public ExportadorCatalogo(ProductoRepository repo, EntityManager entityManager,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${productos.exportacion.concurrentes-max:2}") int concurrentesMax) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+        // Sin flush por fila: el buffer del generador (y el gzip) deciden cuándo escribir
+        this.writer = objectMapper.writerFor(Producto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.filasExportadas = Counter.builder("productos.exportacion.rows")
+                .description("Productos escritos por la exportación NDJSON")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("productos.exportacion.rejected")
+                .description("Exportaciones rechazadas por superar productos.exportacion.concurrentes-max")
+                .register(meterRegistry);
+        this.cupos = new Semaphore(concurrentesMax);
+    }
+
+    /**
+     * Reserva un cupo para una exportación, sin esperar.
+     *
+     * @return false si ya hay {@code concurrentes-max} exportaciones en curso
+     */
+    public boolean reservarCupo() {
+        if (cupos.tryAcquire()) {
+            return true;
+        }
+        rechazadas.increment();
+        return false;
+    }
+
+    public void liberarCupo() {
+        cupos.release();
+    }
+
+    /**
+     * Escribe todos los productos ordenados por id. No cierra {@code salida}.
+     *
+     * @return cantidad de productos escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream salida, boolean gzip) throws IOException {
+        OutputStream base = noCerrable(salida);
+        // Al cerrar el generador se cierra el gzip, que escribe su cierre sin cerrar la respuesta
+        OutputStream destino = gzip ? new GZIPOutputStream(base, 8192) : base;
+
+        long filas = 0;
+        try (JsonGenerator generador = writer.createGenerator(destino);
+             Stream<Producto> productos = repo.streamTodosPorId()) {
+            // Sin separador implícito entre valores raíz: cada línea termina en '\n'
+            generador.setRootValueSeparator(null);
+            for (Producto producto : (Iterable<Producto>) productos::iterator) {
+                writer.writeValue(generador, producto);
+                generador.writeRaw('\n');
+                // La entidad ya se escribió: se suelta del contexto de persistencia
+                entityManager.detach(producto);
+                filas++;
+            }
+        } finally {
+            filasExportadas.increment(filas);
+        }
+        return filas;
+    }
+
+    // La respuesta HTTP la cierra el contenedor, no el generador
+    private static OutputStream noCerrable(OutputStream salida) {
+        return new FilterOutputStream(salida) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
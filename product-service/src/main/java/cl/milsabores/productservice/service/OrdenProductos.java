@@ -0,0 +1,68 @@
+package cl.milsabores.productservice.service;
+
+import cl.milsabores.productservice.model.Producto;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Criterios de orden de los listados paginados. El id desempata siempre,
+ * así cada producto tiene una posición única y el cursor (valor, id) es estable.
+ */
+public enum OrdenProductos {
+
+    ID(Comparator.comparing(Producto::getId)),
+    NOMBRE(Comparator.comparing(Producto::getNombre, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Producto::getId)),
+    PRECIO(Comparator.comparing(Producto::getPrecio, Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(Producto::getId));
+
+    private final Comparator<Producto> comparador;
+
+    OrdenProductos(Comparator<Producto> comparador) {
+        this.comparador = comparador;
+    }
+
+    public Comparator<Producto> comparador(boolean descendente) {
+        return descendente ? comparador.reversed() : comparador;
+    }
+
+    /**
+     * Valor de la clave de orden tal como viaja en el cursor (null si el producto no lo tiene).
+     */
+    String valor(Producto p) {
+        return switch (this) {
+            case ID -> null;
+            case NOMBRE -> p.getNombre();
+            case PRECIO -> p.getPrecio() != null ? p.getPrecio().toPlainString() : null;
+        };
+    }
+
+    /**
+     * Producto "fantasma" con la clave del cursor, para buscar su posición en la lista ordenada.
+     */
+    Producto referencia(String valor, Long id) {
+        Producto.ProductoBuilder builder = Producto.builder().id(id);
+        return switch (this) {
+            case ID -> builder.build();
+            case NOMBRE -> builder.nombre(valor).build();
+            case PRECIO -> builder.precio(valor != null ? new BigDecimal(valor) : null).build();
+        };
+    }
+
+    public String nombre() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static OrdenProductos desde(String orden) {
+        if (orden == null || orden.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(orden.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Orden inválido: usa id, nombre o precio");
+        }
+    }
+}
@@ -1,56 +1,728 @@
 package cl.milsabores.productservice.service;
 
+import cl.milsabores.productservice.cache.CatalogoCache;
+import cl.milsabores.productservice.cache.CatalogoSnapshot;
+import cl.milsabores.productservice.cache.CuerpoJson;
+import cl.milsabores.productservice.cache.IndiceColumnar;
+import cl.milsabores.productservice.cache.RespuestasCatalogo;
+import cl.milsabores.productservice.dto.CambioDisponibilidadRequest;
+import cl.milsabores.productservice.dto.PaginaProductos;
+import cl.milsabores.productservice.dto.ResultadoCargaDto;
+import cl.milsabores.productservice.dto.ResultadoDisponibilidadDto;
+import cl.milsabores.productservice.dto.ResultadoFacetas;
+import cl.milsabores.productservice.exception.ConflictoVersionException;
+import cl.milsabores.productservice.exception.ProductoNoEncontradoException;
 import cl.milsabores.productservice.model.Producto;
 import cl.milsabores.productservice.repository.ProductoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class ProductoService {
 
+    // Tipo de operación en la métrica productos.service
+    private static final String ESCRITURA = "write";
+
+    // Oracle no acepta más de 1000 elementos en una lista IN (ORA-01795)
+    static final int MAX_IDS_POR_IN = 1000;
+
     private final ProductoRepository repo;
+    private final CatalogoCache catalogo;
+    private final RespuestasCatalogo respuestas;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${productos.paginacion.tamano-defecto:20}")
+    private int tamanoPaginaDefecto;
+
+    @Value("${productos.paginacion.tamano-max:100}")
+    private int tamanoPaginaMaximo;
+
+    // Límites (en pesos, ascendentes) de los rangos de precio que cuenta la faceta de precio
+    @Value("${productos.facetas.rangos-precio:5000,10000,20000,50000}")
+    private BigDecimal[] rangosPrecio;
+
+    @Value("${productos.busqueda.limite-defecto:10}")
+    private int limiteBusquedaDefecto;
+
+    @Value("${productos.busqueda.limite-max:50}")
+    private int limiteBusquedaMaximo;
+
+    @Value("${productos.carga.tamano-lote:500}")
+    private int tamanoLoteCarga;
 
+    // ============================
+    // LECTURAS (snapshot en memoria, sin ir a la base de datos)
+    // ============================
     public List<Producto> listarTodos() {
-        return repo.findAll();
+        return catalogo.obtener().todos();
     }
 
     public List<Producto> listarDisponibles() {
-        return repo.findByDisponibleTrue();
+        return catalogo.obtener().disponibles();
     }
 
     public Producto buscarPorId(Long id) {
-        return repo.findById(id)
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+        Producto producto = catalogo.obtener().porId(id);
+        if (producto == null) {
+            throw new ProductoNoEncontradoException(id);
+        }
+        return producto;
     }
 
     public List<Producto> buscarPorCategoria(String categoria) {
-        return repo.findByCategoriaIgnoreCase(categoria);
+        return catalogo.obtener().porCategoria(categoria);
+    }
+
+    /**
+     * Búsqueda por texto en nombre, categoría y descripción (índice en memoria,
+     * ver IndiceBusqueda), del resultado más relevante al menos relevante.
+     */
+    public List<Producto> buscar(String consulta, Integer limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("La búsqueda no puede estar vacía");
+        }
+        int maximo = limite != null ? limite : limiteBusquedaDefecto;
+        if (maximo < 1 || maximo > limiteBusquedaMaximo) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + limiteBusquedaMaximo);
+        }
+
+        CatalogoSnapshot snapshot = catalogo.obtener();
+        List<Producto> resultado = new ArrayList<>(maximo);
+        for (Long id : catalogo.indice().buscar(consulta, maximo)) {
+            // El índice puede ir un paso adelante del snapshot leído
+            Producto producto = snapshot.porId(id);
+            if (producto != null) {
+                resultado.add(producto);
+            }
+        }
+        return resultado;
+    }
+
+    // Mismas vistas ya serializadas (JSON + gzip) para los endpoints de listado
+    public CuerpoJson listarTodosJson() {
+        return respuestas.todos();
+    }
+
+    public CuerpoJson listarDisponiblesJson() {
+        return respuestas.disponibles();
+    }
+
+    public CuerpoJson buscarPorCategoriaJson(String categoria) {
+        return respuestas.porCategoria(categoria);
+    }
+
+    // ============================
+    // LISTADOS PAGINADOS (keyset sobre el snapshot)
+    // ============================
+    public PaginaProductos paginarTodos(String cursor, Integer tamano, String orden, String direccion) {
+        return paginar("todos", CatalogoSnapshot::todos, cursor, tamano, orden, direccion);
+    }
+
+    public PaginaProductos paginarDisponibles(String cursor, Integer tamano, String orden, String direccion) {
+        return paginar("disponibles", CatalogoSnapshot::disponibles, cursor, tamano, orden, direccion);
+    }
+
+    public PaginaProductos paginarPorCategoria(String categoria, String cursor, Integer tamano,
+                                               String orden, String direccion) {
+        return paginar("categoria:" + categoria.toLowerCase(Locale.ROOT), s -> s.porCategoria(categoria),
+                cursor, tamano, orden, direccion);
+    }
+
+    /**
+     * El cursor guarda la clave de orden y el id del último producto entregado;
+     * la página siguiente empieza en el primer producto posterior a esa posición,
+     * aunque entretanto se hayan creado o eliminado productos.
+     */
+    private PaginaProductos paginar(String claveVista, Function<CatalogoSnapshot, List<Producto>> vista,
+                                    String cursor, Integer tamano, String orden, String direccion) {
+        int tamanoPagina = tamanoPagina(tamano);
+        OrdenPedido pedido = ordenPedido(cursor, orden, direccion);
+        CursorPagina desdeCursor = pedido.cursor();
+        OrdenProductos ordenProductos = pedido.orden();
+        boolean descendente = pedido.descendente();
+
+        CatalogoSnapshot snapshot = catalogo.obtener();
+        List<Producto> base = vista.apply(snapshot);
+        Comparator<Producto> comparador = ordenProductos.comparador(descendente);
+        // Las vistas del snapshot ya vienen por id ascendente
+        List<Producto> lista = base.isEmpty() || (ordenProductos == OrdenProductos.ID && !descendente)
+                ? base
+                : snapshot.ordenado(claveVista + "|" + ordenProductos + "|" + descendente, base, comparador);
+
+        int desde = 0;
+        if (desdeCursor != null) {
+            int posicion = Collections.binarySearch(lista,
+                    ordenProductos.referencia(desdeCursor.valor(), desdeCursor.id()), comparador);
+            desde = posicion >= 0 ? posicion + 1 : -(posicion + 1);
+        }
+        int hasta = Math.min(desde + tamanoPagina, lista.size());
+        List<Producto> items = lista.subList(desde, hasta);
+
+        String siguienteCursor = null;
+        if (hasta < lista.size()) {
+            Producto ultimo = lista.get(hasta - 1);
+            siguienteCursor = new CursorPagina(ordenProductos, descendente,
+                    ordenProductos.valor(ultimo), ultimo.getId()).codificar();
+        }
+        return new PaginaProductos(items, siguienteCursor, tamanoPagina,
+                ordenProductos.nombre(), descendente ? "desc" : "asc");
+    }
+
+    private int tamanoPagina(Integer tamano) {
+        int tamanoPagina = tamano != null ? tamano : tamanoPaginaDefecto;
+        if (tamanoPagina < 1 || tamanoPagina > tamanoPaginaMaximo) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + tamanoPaginaMaximo);
+        }
+        return tamanoPagina;
+    }
+
+    // Sin orden/dirección explícitos se usan los del cursor; si vienen ambos deben coincidir
+    private static OrdenPedido ordenPedido(String cursor, String orden, String direccion) {
+        CursorPagina desdeCursor = cursor != null && !cursor.isBlank() ? CursorPagina.decodificar(cursor) : null;
+        OrdenProductos ordenProductos = orden == null && desdeCursor != null
+                ? desdeCursor.orden()
+                : OrdenProductos.desde(orden);
+        boolean descendente = direccion == null && desdeCursor != null
+                ? desdeCursor.descendente()
+                : esDescendente(direccion);
+        if (desdeCursor != null
+                && (desdeCursor.orden() != ordenProductos || desdeCursor.descendente() != descendente)) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+        }
+        return new OrdenPedido(ordenProductos, descendente, desdeCursor);
+    }
+
+    private record OrdenPedido(OrdenProductos orden, boolean descendente, CursorPagina cursor) {
+    }
+
+    private static boolean esDescendente(String direccion) {
+        if (direccion == null || direccion.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direccion.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Dirección inválida: usa asc o desc");
+    }
+
+    // ============================
+    // FACETAS (columnas primitivas del snapshot)
+    // ============================
+
+    /**
+     * Filtra por categorías, disponibilidad y rango de precio (todos opcionales) y entrega
+     * una página ordenada por id o precio (cursor igual que en los listados) junto con
+     * los conteos por categoría, rango de precio y disponibilidad.
+     */
+    public ResultadoFacetas filtrarFacetas(List<String> categorias, Boolean disponible,
+                                           BigDecimal precioMin, BigDecimal precioMax,
+                                           String cursor, Integer tamano, String orden, String direccion) {
+        int tamanoPagina = tamanoPagina(tamano);
+        OrdenPedido pedido = ordenPedido(cursor, orden, direccion);
+        if (pedido.orden() == OrdenProductos.NOMBRE) {
+            throw new IllegalArgumentException("Orden inválido: las facetas se ordenan por id o precio");
+        }
+        if (precioMin != null && precioMax != null && precioMin.compareTo(precioMax) > 0) {
+            throw new IllegalArgumentException("precioMin no puede ser mayor que precioMax");
+        }
+
+        IndiceColumnar columnas = catalogo.obtener().columnas();
+        BitSet categoriasPedidas = null;
+        if (categorias != null && !categorias.isEmpty()) {
+            // Una categoría que ningún producto tiene no calza con nada
+            categoriasPedidas = new BitSet(columnas.cantidadCategorias());
+            for (String categoria : categorias) {
+                int codigo = columnas.codigoCategoria(categoria);
+                if (codigo != IndiceColumnar.SIN_CATEGORIA) {
+                    categoriasPedidas.set(codigo);
+                }
+            }
+        }
+        long minimo = precioMin != null ? centavosFiltro(precioMin, RoundingMode.CEILING) : IndiceColumnar.SIN_PRECIO;
+        long maximo = precioMax != null ? centavosFiltro(precioMax, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        long[] limites = new long[rangosPrecio.length];
+        for (int i = 0; i < rangosPrecio.length; i++) {
+            limites[i] = IndiceColumnar.centavos(rangosPrecio[i], RoundingMode.HALF_UP);
+        }
+
+        IndiceColumnar.Filtrado filtrado = columnas.filtrar(categoriasPedidas, disponible, minimo, maximo, limites);
+
+        // Página: se recorre el orden pedido desde el cursor saltando las filas que no calzan
+        boolean porPrecio = pedido.orden() == OrdenProductos.PRECIO;
+        boolean descendente = pedido.descendente();
+        int posicion = 0;
+        if (pedido.cursor() != null) {
+            String valor = pedido.cursor().valor();
+            long centavosCursor = porPrecio && valor != null
+                    ? IndiceColumnar.centavos(new BigDecimal(valor), RoundingMode.HALF_UP)
+                    : IndiceColumnar.SIN_PRECIO;
+            posicion = columnas.posicionDespuesDe(porPrecio, descendente, centavosCursor, pedido.cursor().id());
+        }
+        List<Producto> items = new ArrayList<>(Math.min(tamanoPagina, filtrado.total()));
+        boolean hayMas = false;
+        for (; posicion < columnas.tamano(); posicion++) {
+            int fila = columnas.fila(porPrecio, descendente, posicion);
+            if (!filtrado.filas().get(fila)) {
+                continue;
+            }
+            if (items.size() == tamanoPagina) {
+                hayMas = true;
+                break;
+            }
+            items.add(columnas.producto(fila));
+        }
+        String siguienteCursor = null;
+        if (hayMas) {
+            Producto ultimo = items.get(items.size() - 1);
+            siguienteCursor = new CursorPagina(pedido.orden(), descendente,
+                    pedido.orden().valor(ultimo), ultimo.getId()).codificar();
+        }
+
+        List<ResultadoFacetas.Categoria> facetasCategoria = new ArrayList<>();
+        for (int codigo = 0; codigo < columnas.cantidadCategorias(); codigo++) {
+            if (filtrado.porCategoria()[codigo] > 0) {
+                facetasCategoria.add(new ResultadoFacetas.Categoria(
+                        columnas.nombreCategoria(codigo), filtrado.porCategoria()[codigo]));
+            }
+        }
+        List<ResultadoFacetas.RangoPrecio> facetasPrecio = new ArrayList<>(rangosPrecio.length + 1);
+        for (int i = 0; i <= rangosPrecio.length; i++) {
+            facetasPrecio.add(new ResultadoFacetas.RangoPrecio(
+                    i > 0 ? rangosPrecio[i - 1] : null,
+                    i < rangosPrecio.length ? rangosPrecio[i] : null,
+                    filtrado.porRango()[i]));
+        }
+
+        return new ResultadoFacetas(items, siguienteCursor, tamanoPagina,
+                pedido.orden().nombre(), descendente ? "desc" : "asc", filtrado.total(),
+                facetasCategoria, facetasPrecio,
+                new ResultadoFacetas.Disponibilidad(filtrado.disponibles(), filtrado.noDisponibles()));
     }
 
+    private static long centavosFiltro(BigDecimal precio, RoundingMode redondeo) {
+        try {
+            return IndiceColumnar.centavos(precio, redondeo);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Precio fuera de rango: " + precio.toPlainString());
+        }
+    }
+
+    // ============================
+    // ESCRITURAS
+    // ============================
     public Producto crear(Producto p) {
-        return repo.save(p);
+        // La versión la asigna Hibernate al insertar
+        p.setVersion(null);
+        Producto creado = medir("crear", ESCRITURA, () -> repo.save(p));
+        catalogo.productoGuardado(creado);
+        return creado;
     }
 
+    /**
+     * Reemplaza todos los campos. Si el cuerpo trae "version" debe ser la vigente;
+     * sin ella se mantiene el comportamiento anterior (gana la última escritura).
+     */
     public Producto actualizar(Long id, Producto nuevo) {
-        Producto existente = buscarPorId(id);
+        Producto actualizado;
+        try {
+            // Lectura y UPDATE en la misma transacción: la entidad sigue administrada y no hace falta merge
+            actualizado = medir("actualizar", ESCRITURA, () -> transactionTemplate.execute(estado -> {
+                // Se lee la entidad desde la base: los productos del snapshot no se modifican
+                Producto existente = repo.findById(id).orElseThrow(() -> new ProductoNoEncontradoException(id));
+                if (nuevo.getVersion() != null && !nuevo.getVersion().equals(existente.getVersion())) {
+                    throw new ConflictoVersionException(id, existente.getVersion());
+                }
+
+                existente.setNombre(nuevo.getNombre());
+                existente.setDescripcion(nuevo.getDescripcion());
+                existente.setPrecio(nuevo.getPrecio());
+                existente.setCategoria(nuevo.getCategoria());
+                existente.setDisponible(nuevo.isDisponible());
+                existente.setUrlImagen(nuevo.getUrlImagen());
+                return existente;
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Otra escritura entró entre la lectura y el UPDATE
+            throw new ConflictoVersionException(id, null);
+        }
+        catalogo.productoGuardado(actualizado);
+        return actualizado;
+    }
 
-        existente.setNombre(nuevo.getNombre());
-        existente.setDescripcion(nuevo.getDescripcion());
-        existente.setPrecio(nuevo.getPrecio());
-        existente.setCategoria(nuevo.getCategoria());
-        existente.setDisponible(nuevo.isDisponible());
-        existente.setUrlImagen(nuevo.getUrlImagen());
+    /**
+     * Aplica solo los campos presentes en el cuerpo con un único UPDATE, sin leer
+     * la entidad antes. Con "version" el UPDATE exige esa versión (conflicto si otro
+     * la cambió); si además coincide con la del catálogo en memoria, el resultado se
+     * arma desde ahí y no se vuelve a leer la fila.
+     */
+    public Producto actualizarParcial(Long id, Map<String, Object> cambios) {
+        if (cambios == null) {
+            throw new IllegalArgumentException("El cuerpo debe ser un objeto JSON");
+        }
+        Long versionEsperada = null;
+        Map<String, Object> valores = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+            if (cambio.getKey().equals("version")) {
+                if (!(cambio.getValue() instanceof Number numero)) {
+                    throw new IllegalArgumentException("version debe ser un número");
+                }
+                versionEsperada = numero.longValue();
+            } else {
+                valores.put(cambio.getKey(), valorParcial(cambio.getKey(), cambio.getValue()));
+            }
+        }
+        if (valores.isEmpty()) {
+            throw new IllegalArgumentException("No hay campos para actualizar");
+        }
 
-        return repo.save(existente);
+        Long version = versionEsperada;
+        Producto actualizado = medir("actualizarParcial", ESCRITURA, () -> transactionTemplate.execute(estado -> {
+            // Los nombres de campo ya pasaron por valorParcial: solo columnas conocidas llegan al JPQL
+            StringBuilder jpql = new StringBuilder("update Producto p set p.version = p.version + 1");
+            for (String campo : valores.keySet()) {
+                jpql.append(", p.").append(campo).append(" = :").append(campo);
+            }
+            jpql.append(" where p.id = :id");
+            if (version != null) {
+                jpql.append(" and p.version = :version");
+            }
+            Query update = entityManager.createQuery(jpql.toString());
+            valores.forEach(update::setParameter);
+            update.setParameter("id", id);
+            if (version != null) {
+                update.setParameter("version", version);
+            }
+            int filas = update.executeUpdate();
+
+            if (filas == 1 && version != null) {
+                Producto enCatalogo = catalogo.obtener().porId(id);
+                if (enCatalogo != null && version.equals(enCatalogo.getVersion())) {
+                    return aplicarCambios(enCatalogo.toBuilder().build(), valores, version + 1);
+                }
+            }
+            // El UPDATE masivo no pasa por el contexto de persistencia: se lee la fila ya actualizada
+            entityManager.clear();
+            Producto fila = repo.findById(id).orElseThrow(() -> new ProductoNoEncontradoException(id));
+            if (filas == 0) {
+                throw new ConflictoVersionException(id, fila.getVersion());
+            }
+            return fila;
+        }));
+        catalogo.productoGuardado(actualizado);
+        return actualizado;
+    }
+
+    /**
+     * Marca disponibles o agotados varios productos (por ids o por categoría) con un
+     * solo UPDATE, más una lectura de esas filas para actualizar el catálogo. Los ids van
+     * en tramos de {@link #MAX_IDS_POR_IN} (un UPDATE y una lectura por tramo), todos en
+     * la misma transacción.
+     */
+    public ResultadoDisponibilidadDto cambiarDisponibilidad(CambioDisponibilidadRequest request) {
+        if (request == null || request.disponible() == null) {
+            throw new IllegalArgumentException("disponible es obligatorio");
+        }
+        boolean porIds = request.ids() != null && !request.ids().isEmpty();
+        boolean porCategoria = request.categoria() != null && !request.categoria().isBlank();
+        if (porIds == porCategoria) {
+            throw new IllegalArgumentException("Indica ids o categoria (solo uno de los dos)");
+        }
+        boolean disponible = request.disponible();
+
+        List<Producto> releidos = new ArrayList<>();
+        int actualizados = medir("cambiarDisponibilidad", ESCRITURA, () -> transactionTemplate.execute(estado -> {
+            if (porIds) {
+                List<Long> ids = new ArrayList<>(new HashSet<>(request.ids()));
+                ids.remove(null);
+                int filas = 0;
+                for (int desde = 0; desde < ids.size(); desde += MAX_IDS_POR_IN) {
+                    List<Long> tramo = ids.subList(desde, Math.min(ids.size(), desde + MAX_IDS_POR_IN));
+                    int filasTramo = repo.cambiarDisponibilidad(tramo, disponible);
+                    if (filasTramo > 0) {
+                        releidos.addAll(repo.findAllById(tramo));
+                    }
+                    filas += filasTramo;
+                }
+                return filas;
+            }
+            int filas = repo.cambiarDisponibilidadPorCategoria(request.categoria(), disponible);
+            if (filas > 0) {
+                releidos.addAll(repo.findByCategoriaIgnoreCase(request.categoria()));
+            }
+            return filas;
+        }));
+        catalogo.productosGuardados(releidos);
+        return new ResultadoDisponibilidadDto(actualizados);
     }
 
     public void eliminar(Long id) {
-        if (!repo.existsById(id)) {
-            throw new RuntimeException("Producto no encontrado");
+        medir("eliminar", ESCRITURA, () -> {
+            if (!repo.existsById(id)) {
+                throw new ProductoNoEncontradoException(id);
+            }
+            repo.deleteById(id);
+            return null;
+        });
+        catalogo.productoEliminado(id);
+    }
+
+    // Valida un campo de PATCH y lo convierte al tipo de la entidad
+    private static Object valorParcial(String campo, Object valor) {
+        switch (campo) {
+            case "nombre" -> {
+                if (!(valor instanceof String nombre) || nombre.isBlank()) {
+                    throw new IllegalArgumentException("nombre no puede estar vacío");
+                }
+                return nombre;
+            }
+            case "descripcion", "categoria", "urlImagen" -> {
+                if (valor != null && !(valor instanceof String)) {
+                    throw new IllegalArgumentException(campo + " debe ser texto o null");
+                }
+                return valor;
+            }
+            case "precio" -> {
+                if (!(valor instanceof Number numero)) {
+                    throw new IllegalArgumentException("precio debe ser un número");
+                }
+                BigDecimal precio = new BigDecimal(numero.toString());
+                if (precio.signum() < 0) {
+                    throw new IllegalArgumentException("precio no puede ser negativo");
+                }
+                return precio;
+            }
+            case "disponible" -> {
+                if (!(valor instanceof Boolean)) {
+                    throw new IllegalArgumentException("disponible debe ser true o false");
+                }
+                return valor;
+            }
+            default -> throw new IllegalArgumentException("Campo desconocido o no modificable: " + campo);
         }
-        repo.deleteById(id);
+    }
+
+    private static Producto aplicarCambios(Producto producto, Map<String, Object> valores, long version) {
+        valores.forEach((campo, valor) -> {
+            switch (campo) {
+                case "nombre" -> producto.setNombre((String) valor);
+                case "descripcion" -> producto.setDescripcion((String) valor);
+                case "categoria" -> producto.setCategoria((String) valor);
+                case "urlImagen" -> producto.setUrlImagen((String) valor);
+                case "precio" -> producto.setPrecio((BigDecimal) valor);
+                case "disponible" -> producto.setDisponible((Boolean) valor);
+                default -> throw new IllegalStateException(campo);
+            }
+        });
+        producto.setVersion(version);
+        return producto;
+    }
+
+    // ============================
+    // CARGA MASIVA
+    // ============================
+
+    /**
+     * Crea (filas sin id) o actualiza (filas con id) productos en lotes. Cada lote se
+     * confirma en su propia transacción: una consulta trae los productos a actualizar
+     * y los INSERT/UPDATE salen en JDBC batch al hacer flush.
+     *
+     * @param filas filas leídas del arreglo JSON o del stream NDJSON
+     * @return resultado por fila, en el orden de entrada
+     */
+    public ResultadoCargaDto cargar(Iterator<Producto> filas) {
+        List<ResultadoCargaDto.Fila> resultados = new ArrayList<>();
+        Set<Long> idsVistos = new HashSet<>();
+        int tamanoLote = Math.max(1, tamanoLoteCarga);
+        List<FilaCarga> lote = new ArrayList<>(tamanoLote);
+
+        int numero = 0;
+        while (true) {
+            Producto producto;
+            try {
+                if (!filas.hasNext()) {
+                    break;
+                }
+                producto = filas.next();
+            } catch (RuntimeException e) {
+                // JSON mal formado: no es posible seguir leyendo el stream
+                resultados.add(rechazada(numero + 1, null, "JSON inválido: la carga se detuvo en esta fila"));
+                break;
+            }
+            numero++;
+
+            try {
+                validarFilaCarga(producto, idsVistos);
+                lote.add(new FilaCarga(numero, producto));
+            } catch (IllegalArgumentException e) {
+                resultados.add(rechazada(numero, producto, e.getMessage()));
+            }
+
+            if (lote.size() >= tamanoLote) {
+                procesarLote(lote, resultados);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, resultados);
+        }
+
+        resultados.sort(Comparator.comparingInt(ResultadoCargaDto.Fila::fila));
+        int creados = 0;
+        int actualizados = 0;
+        for (ResultadoCargaDto.Fila r : resultados) {
+            if (ResultadoCargaDto.CREADO.equals(r.estado())) {
+                creados++;
+            } else if (ResultadoCargaDto.ACTUALIZADO.equals(r.estado())) {
+                actualizados++;
+            }
+        }
+        return new ResultadoCargaDto(resultados.size(), creados, actualizados,
+                resultados.size() - creados - actualizados, resultados);
+    }
+
+    private static void validarFilaCarga(Producto producto, Set<Long> idsVistos) {
+        if (producto == null || producto.getNombre() == null || producto.getNombre().isBlank()) {
+            throw new IllegalArgumentException("nombre es obligatorio");
+        }
+        if (producto.getPrecio() == null || producto.getPrecio().signum() < 0) {
+            throw new IllegalArgumentException("precio es obligatorio y no puede ser negativo");
+        }
+        if (producto.getId() != null && !idsVistos.add(producto.getId())) {
+            throw new IllegalArgumentException("Id repetido dentro de la carga");
+        }
+    }
+
+    private void procesarLote(List<FilaCarga> lote, List<ResultadoCargaDto.Fila> resultados) {
+        try {
+            List<ResultadoCargaDto.Fila> resultadosLote = new ArrayList<>(lote.size());
+            List<Producto> guardados = medir("cargarLote", ESCRITURA,
+                    () -> transactionTemplate.execute(estado -> guardarLote(lote, resultadosLote)));
+            catalogo.productosGuardados(guardados);
+            resultados.addAll(resultadosLote);
+        } catch (DataAccessException e) {
+            // Alguna fila falló en la base y el lote completo se revirtió: se reintenta fila a fila para aislarla
+            for (FilaCarga fila : lote) {
+                List<ResultadoCargaDto.Fila> resultadoFila = new ArrayList<>(1);
+                try {
+                    List<Producto> guardado = transactionTemplate.execute(
+                            estado -> guardarLote(List.of(fila), resultadoFila));
+                    catalogo.productosGuardados(guardado);
+                    resultados.addAll(resultadoFila);
+                } catch (DataAccessException ex) {
+                    resultados.add(rechazada(fila.numero(), fila.producto(), "No se pudo guardar el producto"));
+                }
+            }
+        }
+    }
+
+    // Se ejecuta dentro de la transacción del lote
+    private List<Producto> guardarLote(List<FilaCarga> lote, List<ResultadoCargaDto.Fila> resultados) {
+        List<Long> ids = lote.stream()
+                .map(f -> f.producto().getId())
+                .filter(Objects::nonNull)
+                .toList();
+        // Una consulta por lote en vez de un findById por fila
+        Map<Long, Producto> existentes = new HashMap<>(ids.size() * 2);
+        if (!ids.isEmpty()) {
+            for (Producto p : repo.findAllById(ids)) {
+                existentes.put(p.getId(), p);
+            }
+        }
+
+        List<Producto> guardados = new ArrayList<>(lote.size());
+        for (FilaCarga fila : lote) {
+            Producto datos = fila.producto();
+            if (datos.getId() == null) {
+                // Entidad nueva (no la fila leída): si el lote se revierte, la fila sigue sin id para el reintento.
+                // El id sale del bloque ya reservado de la secuencia, sin ir a la base por cada fila
+                Producto creado = repo.save(Producto.builder()
+                        .nombre(datos.getNombre())
+                        .descripcion(datos.getDescripcion())
+                        .precio(datos.getPrecio())
+                        .categoria(datos.getCategoria())
+                        .disponible(datos.isDisponible())
+                        .urlImagen(datos.getUrlImagen())
+                        .build());
+                guardados.add(creado);
+                resultados.add(new ResultadoCargaDto.Fila(fila.numero(), creado.getId(), creado.getNombre(),
+                        ResultadoCargaDto.CREADO, null));
+                continue;
+            }
+
+            Producto existente = existentes.get(datos.getId());
+            if (existente == null) {
+                resultados.add(rechazada(fila.numero(), datos, "Producto no encontrado"));
+                continue;
+            }
+            existente.setNombre(datos.getNombre());
+            existente.setDescripcion(datos.getDescripcion());
+            existente.setPrecio(datos.getPrecio());
+            existente.setCategoria(datos.getCategoria());
+            existente.setDisponible(datos.isDisponible());
+            existente.setUrlImagen(datos.getUrlImagen());
+            guardados.add(existente);
+            resultados.add(new ResultadoCargaDto.Fila(fila.numero(), existente.getId(), existente.getNombre(),
+                    ResultadoCargaDto.ACTUALIZADO, null));
+        }
+
+        // Los INSERT y UPDATE pendientes salen aquí, agrupados según hibernate.jdbc.batch_size
+        repo.flush();
+        // El EntityManager es el de la transacción del lote y se cierra al confirmar; vaciarlo
+        // tras el flush evita que el commit vuelva a revisar (dirty checking) cada entidad ya escrita
+        entityManager.clear();
+        return guardados;
+    }
+
+    private static ResultadoCargaDto.Fila rechazada(int numero, Producto producto, String detalle) {
+        return new ResultadoCargaDto.Fila(numero,
+                producto != null ? producto.getId() : null,
+                producto != null ? producto.getNombre() : null,
+                ResultadoCargaDto.RECHAZADO, detalle);
+    }
+
+    private record FilaCarga(int numero, Producto producto) {
+    }
+
+    // ============================
+    // MÉTRICAS
+    // ============================
+
+    // productos.service{operation, type}: tiempo de cada operación contra la base de datos
+    private <T> T medir(String operacion, String tipo, Supplier<T> accion) {
+        return Timer.builder("productos.service")
+                .description("Latencia de las escrituras de productos")
+                .tag("operation", operacion)
+                .tag("type", tipo)
+                .register(meterRegistry)
+                .record(accion);
     }
 }
@@ -0,0 +1,12 @@
+-- Mismo esquema que db/migration/oracle/V1__esquema_inicial.sql para el perfil embebido (H2 en modo Oracle).
+
+create table productos (
+    id          bigint generated by default as identity,
+    nombre      varchar(255) not null,
+    descripcion varchar(255),
+    precio      numeric(38,2) not null,
+    categoria   varchar(255),
+    disponible  boolean not null,
+    url_imagen  varchar(255),
+    primary key (id)
+);
@@ -0,0 +1,4 @@
+create sequence productos_seq start with 1 increment by 50;
+alter table productos alter column id drop identity;
+
+alter table productos add version bigint default 0 not null;
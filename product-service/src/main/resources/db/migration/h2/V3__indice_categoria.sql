@@ -0,0 +1,2 @@
+-- H2 no tiene índices por función: índice simple sobre la columna.
+create index IX_PRODUCTOS_CATEGORIA on productos (categoria);
@@ -0,0 +1,14 @@
+-- Esquema que generaba spring.jpa.hibernate.ddl-auto=update.
+-- En una base que ya lo tiene, Flyway registra esta versión como baseline sin ejecutarla
+-- (spring.flyway.baseline-on-migrate / baseline-version=1): no se edita, los cambios van en V2 en adelante.
+
+create table productos (
+    id          number(19,0) generated as identity,
+    nombre      varchar2(255 char) not null,
+    descripcion varchar2(255 char),
+    precio      number(38,2) not null,
+    categoria   varchar2(255 char),
+    disponible  number(1,0) not null check (disponible in (0,1)),
+    url_imagen  varchar2(255 char),
+    primary key (id)
+);
@@ -0,0 +1,8 @@
+-- Ids reservados de a 50 desde una secuencia (Producto.IDS_POR_RESERVA, optimizador pooled de Hibernate)
+-- en lugar de IDENTITY (GENERATED ALWAYS rechaza ids explícitos). MigracionSecuenciaProductos adelanta
+-- la secuencia al iniciar más allá de los ids que ya entregó IDENTITY.
+create sequence productos_seq start with 1 increment by 50;
+alter table productos modify id drop identity;
+
+-- Bloqueo optimista (@Version): las filas existentes parten en 0
+alter table productos add version number(19,0) default 0 not null;
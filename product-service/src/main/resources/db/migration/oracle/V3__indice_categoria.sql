@@ -0,0 +1,4 @@
+-- GET /api/productos/categoria/{categoria} (findByCategoriaIgnoreCase) y
+-- PATCH /api/productos/disponibilidad por categoría comparan upper(categoria):
+-- índice por función para no recorrer toda la tabla.
+create index IX_PRODUCTOS_CATEGORIA on productos (upper(categoria));
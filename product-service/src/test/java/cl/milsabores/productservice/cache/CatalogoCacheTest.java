@@ -0,0 +1,80 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogoCacheTest {
+
+    private ProductoRepository repo;
+    private CatalogoCache catalogo;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ProductoRepository.class);
+        when(repo.findAll()).thenReturn(List.of(producto(1L, "1000", 1L), producto(2L, "2000", 1L)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        catalogo = new CatalogoCache(repo, new EventosCatalogo(new ObjectMapper(), registry, 16, 16, 1, 4, 1000, 5000), registry);
+        catalogo.recargar();
+    }
+
+    @Test
+    void descartaUnParcheConVersionAnterior() {
+        catalogo.productoGuardado(producto(1L, "1300", 3L));
+        catalogo.productoGuardado(producto(1L, "1200", 2L));
+        catalogo.productosGuardados(List.of(producto(1L, "1100", 2L)));
+
+        assertEquals(new BigDecimal("1300"), catalogo.obtener().porId(1L).getPrecio());
+    }
+
+    @Test
+    void laRecargaPublicaYReaplicaLoEscritoDuranteLaLectura() {
+        // La lectura ve la versión 1; mientras tanto se confirma y parcha la versión 2
+        when(repo.findAll()).thenAnswer(invocacion -> {
+            catalogo.productoGuardado(producto(1L, "1500", 2L));
+            return List.of(producto(1L, "1000", 1L), producto(2L, "2000", 1L), producto(3L, "3000", 1L));
+        });
+
+        catalogo.recargar();
+
+        CatalogoSnapshot snapshot = catalogo.obtener();
+        assertEquals(new BigDecimal("1500"), snapshot.porId(1L).getPrecio());
+        // Lo demás de la lectura se publica igual
+        assertNotNull(snapshot.porId(3L));
+    }
+
+    @Test
+    void unGuardadoTardioNoReviveUnProductoEliminado() {
+        catalogo.productoEliminado(2L);
+        catalogo.productoGuardado(producto(2L, "2500", 2L));
+        assertNull(catalogo.obtener().porId(2L));
+
+        // Eliminado durante la lectura: la recarga no lo vuelve a publicar
+        when(repo.findAll()).thenAnswer(invocacion -> {
+            catalogo.productoEliminado(1L);
+            return List.of(producto(1L, "1000", 1L));
+        });
+        catalogo.recargar();
+        assertNull(catalogo.obtener().porId(1L));
+    }
+
+    private static Producto producto(Long id, String precio, Long version) {
+        return Producto.builder()
+                .id(id)
+                .nombre("Producto " + id)
+                .precio(new BigDecimal(precio))
+                .categoria("Tortas")
+                .disponible(true)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoSnapshotTest {
+
+    @Test
+    void vistasPrecalculadasOrdenadasPorId() {
+        CatalogoSnapshot snapshot = CatalogoSnapshot.de(1, List.of(
+                producto(3L, "Tortas", true),
+                producto(1L, "tortas", false),
+                producto(2L, "Galletas", true)));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(snapshot.todos()));
+        assertEquals(List.of(2L, 3L), ids(snapshot.disponibles()));
+        assertEquals(List.of(1L, 3L), ids(snapshot.porCategoria("TORTAS")));
+        assertTrue(snapshot.porCategoria("Panes").isEmpty());
+        assertEquals("Galletas", snapshot.porId(2L).getCategoria());
+    }
+
+    @Test
+    void parchesGeneranSnapshotsNuevosSinTocarElAnterior() {
+        CatalogoSnapshot original = CatalogoSnapshot.de(1, List.of(producto(1L, "Tortas", true)));
+
+        CatalogoSnapshot conNuevo = original.conProducto(2, producto(2L, "Tortas", true));
+        CatalogoSnapshot actualizado = conNuevo.conProducto(3, producto(1L, "Panes", false));
+        CatalogoSnapshot sinUno = actualizado.sinProducto(4, 1L);
+
+        assertEquals(List.of(1L), ids(original.todos()));
+        assertEquals(List.of(1L, 2L), ids(conNuevo.porCategoria("tortas")));
+        assertEquals(List.of(2L), ids(actualizado.porCategoria("tortas")));
+        assertEquals(List.of(2L), ids(actualizado.disponibles()));
+        assertEquals(List.of(2L), ids(sinUno.todos()));
+        assertEquals(4, sinUno.version());
+    }
+
+    @Test
+    void parcheMasivoReemplazaYAgregaEnUnaSolaVersion() {
+        CatalogoSnapshot original = CatalogoSnapshot.de(1, List.of(
+                producto(1L, "Tortas", true),
+                producto(3L, "Tortas", true)));
+
+        CatalogoSnapshot cargado = original.conProductos(2, List.of(
+                producto(4L, "Panes", true),
+                producto(1L, "Panes", false),
+                producto(2L, "Tortas", true)));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(cargado.todos()));
+        assertEquals(List.of(1L, 4L), ids(cargado.porCategoria("panes")));
+        assertEquals(List.of(2L, 3L, 4L), ids(cargado.disponibles()));
+        assertEquals(List.of(1L, 3L), ids(original.todos()));
+        assertEquals(2, cargado.version());
+    }
+
+    @Test
+    void guardaCopiasDeLosProductos() {
+        Producto entidad = producto(1L, "Tortas", true);
+        CatalogoSnapshot snapshot = CatalogoSnapshot.de(1, List.of(entidad));
+
+        entidad.setNombre("modificado");
+
+        assertEquals("Producto 1", snapshot.porId(1L).getNombre());
+    }
+
+    private static Producto producto(Long id, String categoria, boolean disponible) {
+        return Producto.builder()
+                .id(id)
+                .nombre("Producto " + id)
+                .precio(BigDecimal.valueOf(1000))
+                .categoria(categoria)
+                .disponible(disponible)
+                .build();
+    }
+
+    private static List<Long> ids(List<Producto> productos) {
+        return productos.stream().map(Producto::getId).toList();
+    }
+}
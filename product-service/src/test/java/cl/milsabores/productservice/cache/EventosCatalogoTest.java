@@ -0,0 +1,167 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventosCatalogoTest {
+
+    // Anillo de 8 eventos; un cliente puede atrasarse hasta 4
+    private final EventosCatalogo eventos = new EventosCatalogo(new ObjectMapper(), new SimpleMeterRegistry(), 8, 4, 1, 4, 1000, 5000);
+
+    @Test
+    void reanudaDesdeElUltimoIdRecibido() {
+        eventos.publicar(List.of(EventosCatalogo.eliminado(1L), EventosCatalogo.eliminado(2L), EventosCatalogo.eliminado(3L)));
+        EventosCatalogo.Evento primero = eventos.despuesDe(0, 1).get(0);
+
+        long desde = eventos.desdeUltimoId(eventos.id(primero));
+        List<EventosCatalogo.Evento> pendientes = eventos.despuesDe(desde, 10);
+
+        assertEquals(List.of(2L, 3L), pendientes.stream().map(EventosCatalogo.Evento::numero).toList());
+        assertEquals("{\"tipo\":\"eliminado\",\"id\":2,\"producto\":null}", pendientes.get(0).datos());
+        // Sin Last-Event-ID solo llegan los eventos nuevos
+        assertEquals(3, eventos.desdeUltimoId(null));
+    }
+
+    @Test
+    void pideReinicioSiElIdNoSePuedeContinuar() {
+        for (long id = 1; id <= 6; id++) {
+            eventos.publicar(List.of(EventosCatalogo.eliminado(id)));
+        }
+        EventosCatalogo.Evento primero = new EventosCatalogo.Evento(1, EventosCatalogo.ELIMINADO, "{}");
+
+        // Atrasado más que retrasoMax, de otro arranque o inválido
+        assertEquals(-1, eventos.desdeUltimoId(eventos.id(primero)));
+        assertEquals(-1, eventos.desdeUltimoId("otro-5"));
+        assertEquals(-1, eventos.desdeUltimoId("basura"));
+        assertNull(eventos.despuesDe(1, 10));
+        assertEquals(2, eventos.despuesDe(4, 10).size());
+    }
+
+    @Test
+    void clasificaLosCambios() {
+        Producto anterior = producto(true, "1500.5", 1L);
+
+        assertEquals(EventosCatalogo.CREADO, EventosCatalogo.guardado(null, anterior).tipo());
+        assertEquals(EventosCatalogo.DISPONIBILIDAD,
+                EventosCatalogo.guardado(anterior, producto(false, "1500.50", 2L)).tipo());
+        assertEquals(EventosCatalogo.ACTUALIZADO,
+                EventosCatalogo.guardado(anterior, producto(false, "1600", 2L)).tipo());
+        // Misma versión y mismo precio con otra escala: no hay cambio
+        assertNull(EventosCatalogo.guardado(anterior, producto(true, "1500.50", 1L)));
+    }
+
+    @Test
+    void unClienteQueNoLeeNoDetieneALosDemas() throws Exception {
+        // Un solo cupo de envío y 100 ms de espera por escritura
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EventosCatalogo conUnHilo = new EventosCatalogo(new ObjectMapper(), registry, 8, 4, 1, 4, 60_000, 100);
+        CountDownLatch soltarLento = new CountDownLatch(1);
+        BlockingQueue<SseEmitter.SseEventBuilder> recibidos = new LinkedBlockingQueue<>();
+        try {
+            // El primer envío (el latido inicial) queda bloqueado como en un socket que nadie lee
+            conUnHilo.suscribir(null, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder evento) throws IOException {
+                    try {
+                        soltarLento.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("cliente desconectado");
+                }
+            });
+            conUnHilo.suscribir(null, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder evento) {
+                    recibidos.add(evento);
+                }
+            });
+            conUnHilo.publicar(List.of(EventosCatalogo.eliminado(1L)));
+
+            Thread.sleep(150);
+            conUnHilo.vigilarEnvios();
+
+            // Recibe el evento sin esperar a que el lento se desbloquee
+            SseEmitter.SseEventBuilder evento = recibidos.poll(2, TimeUnit.SECONDS);
+            assertNotNull(evento);
+            StringBuilder texto = new StringBuilder();
+            evento.build().forEach(parte -> texto.append(parte.getData()));
+            assertTrue(texto.toString().contains("event:eliminado"));
+            assertEquals(1, registry.get("productos.eventos.send.timeouts").counter().count());
+            assertEquals(1, registry.get("productos.eventos.clients").gauge().value());
+        } finally {
+            soltarLento.countDown();
+            conUnHilo.cerrar();
+        }
+    }
+
+    @Test
+    void losEnviosVencidosNoCreanHilosSinLimite() throws Exception {
+        // Un cupo y a lo más 2 hilos: el tercer cliente que no lee espera en la cola
+        EventosCatalogo acotado = new EventosCatalogo(new ObjectMapper(), new SimpleMeterRegistry(), 8, 4, 1, 2, 60_000, 50);
+        CountDownLatch soltarLentos = new CountDownLatch(1);
+        BlockingQueue<SseEmitter.SseEventBuilder> recibidos = new LinkedBlockingQueue<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                acotado.suscribir(null, new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder evento) throws IOException {
+                        try {
+                            soltarLentos.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("cliente desconectado");
+                    }
+                });
+            }
+            acotado.suscribir(null, new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder evento) {
+                    recibidos.add(evento);
+                }
+            });
+            for (int i = 0; i < 5; i++) {
+                Thread.sleep(80);
+                acotado.vigilarEnvios();
+            }
+
+            assertEquals(2, acotado.hilosEnvio());
+            assertNull(recibidos.poll());
+
+            // El conector corta las escrituras bloqueadas: los hilos vuelven y se atiende al resto
+            soltarLentos.countDown();
+            for (int i = 0; i < 10 && recibidos.isEmpty(); i++) {
+                Thread.sleep(50);
+                acotado.vigilarEnvios();
+            }
+            assertNotNull(recibidos.poll(2, TimeUnit.SECONDS));
+        } finally {
+            soltarLentos.countDown();
+            acotado.cerrar();
+        }
+    }
+
+    private static Producto producto(boolean disponible, String precio, Long version) {
+        return Producto.builder()
+                .id(7L)
+                .nombre("Torta")
+                .precio(new BigDecimal(precio))
+                .disponible(disponible)
+                .version(version)
+                .build();
+    }
+}
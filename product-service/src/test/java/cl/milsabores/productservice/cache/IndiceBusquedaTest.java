@@ -0,0 +1,73 @@
+package cl.milsabores.productservice.cache;
+
+import cl.milsabores.productservice.model.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceBusquedaTest {
+
+    private final IndiceBusqueda indice = IndiceBusqueda.de(List.of(
+            producto(1L, "Pastel de Mil Hojas", "Pastelería", "Con manjar"),
+            producto(2L, "Torta de Chocolate", "Tortas", "Bizcocho con ganache"),
+            producto(3L, "Kuchen de Nuez", "Pastelería", "Masa con nueces"),
+            producto(4L, "Pan amasado", "Panes", null)));
+
+    @Test
+    void ignoraTildesYMayusculas() {
+        assertEquals(List.of(1L), indice.buscar("PASTEL hojas", 10));
+        assertEquals(List.of(1L, 3L), indice.buscar("PASTELERIA", 10));
+        assertEquals(List.of("pasteleria", "de", "mil", "hojas"), IndiceBusqueda.tokenizar("Pastelería de Mil-Hojas de"));
+    }
+
+    @Test
+    void ultimoTerminoComoPrefijoParaAutocompletar() {
+        // "past" calza con el nombre de 1 (peso mayor) y la categoría de 1 y 3
+        assertEquals(List.of(1L, 3L), indice.buscar("past", 10));
+        assertEquals(List.of(2L), indice.buscar("torta choc", 10));
+        // Solo el último término se completa
+        assertTrue(indice.buscar("tor chocolate", 10).isEmpty());
+        assertEquals(List.of(1L), indice.buscar("past", 1));
+    }
+
+    @Test
+    void toleraErroresDeTipeo() {
+        assertEquals(List.of(2L), indice.buscar("chocolte", 10));
+        assertEquals(List.of(3L), indice.buscar("kuchn", 10));
+        // Términos cortos no se corrigen
+        assertTrue(indice.buscar("pam", 10).isEmpty());
+    }
+
+    @Test
+    void actualizacionesIncrementales() {
+        indice.agregar(producto(4L, "Pan de pascua", "Panes", null));
+        indice.agregar(producto(5L, "Pastel de tres leches", "Pastelería", null));
+        indice.quitar(3L);
+
+        assertTrue(indice.buscar("amasado", 10).isEmpty());
+        assertEquals(List.of(4L), indice.buscar("pascua", 10));
+        assertEquals(List.of(1L, 5L), indice.buscar("pasteleria", 10));
+        assertTrue(indice.buscar("nuez", 10).isEmpty());
+    }
+
+    @Test
+    void distanciaCortaAlSuperarElMaximo() {
+        assertEquals(1, IndiceBusqueda.distancia("pastel", "pastl", 2));
+        assertEquals(2, IndiceBusqueda.distancia("kuchen", "kuchne", 2));
+        assertEquals(2, IndiceBusqueda.distancia("torta", "galleta", 1));
+    }
+
+    private static Producto producto(Long id, String nombre, String categoria, String descripcion) {
+        return Producto.builder()
+                .id(id)
+                .nombre(nombre)
+                .categoria(categoria)
+                .descripcion(descripcion)
+                .precio(BigDecimal.valueOf(1000))
+                .disponible(true)
+                .build();
+    }
+}
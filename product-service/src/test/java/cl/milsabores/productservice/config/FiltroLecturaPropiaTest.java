@@ -0,0 +1,33 @@
+package cl.milsabores.productservice.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroLecturaPropiaTest {
+
+    private final FiltroLecturaPropia filtro = new FiltroLecturaPropia(5000);
+
+    @Test
+    void usaLaCookieDentroDeLaVentana() {
+        long hasta = System.currentTimeMillis() + 3000;
+        assertEquals(hasta, filtro.leerCookie(conCookie(Long.toString(hasta))));
+    }
+
+    @Test
+    void ignoraUnaCookieMasAllaDeLaVentanaOInvalida() {
+        long lejano = System.currentTimeMillis() + 60_000;
+        assertNull(filtro.leerCookie(conCookie(Long.toString(lejano))));
+        assertNull(filtro.leerCookie(conCookie(Long.toString(Long.MAX_VALUE))));
+        assertNull(filtro.leerCookie(conCookie("basura")));
+        assertNull(filtro.leerCookie(new MockHttpServletRequest("GET", "/api/productos")));
+    }
+
+    private static MockHttpServletRequest conCookie(String valor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/productos");
+        request.setCookies(new Cookie(FiltroLecturaPropia.COOKIE, valor));
+        return request;
+    }
+}
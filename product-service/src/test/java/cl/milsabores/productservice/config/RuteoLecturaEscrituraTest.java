@@ -0,0 +1,101 @@
+package cl.milsabores.productservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuteoLecturaEscrituraTest {
+
+    private EmbeddedDatabase primario;
+    private EmbeddedDatabase lectura;
+    private SimpleMeterRegistry registry;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate escritura;
+    private TransactionTemplate soloLectura;
+
+    @BeforeEach
+    void crearBases() {
+        primario = base("primario");
+        lectura = base("lectura");
+        registry = new SimpleMeterRegistry();
+
+        RuteoLecturaEscritura ruteo = new RuteoLecturaEscritura(primario, lectura, registry);
+        ruteo.afterPropertiesSet();
+        // Como en BaseDatosLectura: con los valores por defecto dados no pide una conexión al iniciar
+        LazyConnectionDataSourceProxy perezoso = new LazyConnectionDataSourceProxy();
+        perezoso.setTargetDataSource(ruteo);
+        perezoso.setDefaultAutoCommit(true);
+        perezoso.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        perezoso.afterPropertiesSet();
+        jdbc = new JdbcTemplate(perezoso);
+        DataSourceTransactionManager transacciones = new DataSourceTransactionManager(perezoso);
+        escritura = new TransactionTemplate(transacciones);
+        soloLectura = new TransactionTemplate(transacciones);
+        soloLectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void cerrarBases() {
+        RuteoLecturaEscritura.limpiar();
+        primario.shutdown();
+        lectura.shutdown();
+    }
+
+    @Test
+    void soloLecturaVaALaBaseDeLecturaYElRestoAlPrimario() {
+        assertEquals("lectura", soloLectura.execute(estado -> origen()));
+        assertEquals("primario", escritura.execute(estado -> origen()));
+        assertEquals("primario", origen());
+
+        assertEquals(1, contador("lectura", "read-only"));
+        assertEquals(2, contador("primario", "write"));
+    }
+
+    @Test
+    void despuesDeUnaEscrituraLeeDelPrimarioDuranteLaVentana() {
+        RuteoLecturaEscritura.primarioHasta(System.currentTimeMillis() + 60_000);
+        assertEquals("primario", soloLectura.execute(estado -> origen()));
+        assertEquals(1, contador("primario", "read-your-writes"));
+
+        RuteoLecturaEscritura.primarioHasta(System.currentTimeMillis() - 1);
+        assertEquals("lectura", soloLectura.execute(estado -> origen()));
+    }
+
+    @Test
+    void enPrimarioFuerzaElPrimarioSoloDentroDeLaAccion() {
+        assertEquals("primario", RuteoLecturaEscritura.enPrimario(() -> soloLectura.execute(estado -> origen())));
+        assertEquals("lectura", soloLectura.execute(estado -> origen()));
+        assertEquals(1, contador("primario", "forced"));
+    }
+
+    private String origen() {
+        return jdbc.queryForObject("select nombre from origen", String.class);
+    }
+
+    private double contador(String pool, String motivo) {
+        return registry.get("db.routing.connections").tag("pool", pool).tag("reason", motivo).counter().count();
+    }
+
+    private static EmbeddedDatabase base(String nombre) {
+        EmbeddedDatabase base = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(base);
+        jdbc.execute("create table origen (nombre varchar(20))");
+        jdbc.update("insert into origen values (?)", nombre);
+        return base;
+    }
+}
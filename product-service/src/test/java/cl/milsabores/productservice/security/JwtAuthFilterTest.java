@@ -0,0 +1,76 @@
+package cl.milsabores.productservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthFilterTest {
+
+    private static final String SECRETO = "clave-de-prueba-para-jwt-con-al-menos-32-bytes";
+
+    private final JwtAuthFilter filtro = new JwtAuthFilter(
+            new JwtVerificador(SECRETO, 100, System::currentTimeMillis));
+
+    @Test
+    void escriturasSinTokenSeRechazanEnCualquierVarianteDeRuta() throws Exception {
+        for (String ruta : new String[]{"/api/productos", "/api;x=1/productos", "/%61pi/productos", "/API/productos"}) {
+            MockHttpServletResponse response = filtrar("POST", ruta, null);
+            assertEquals(401, response.getStatus(), ruta);
+        }
+        assertEquals(401, filtrar("DELETE", "/api/productos/1", null).getStatus());
+    }
+
+    @Test
+    void escriturasExigenUnRolDePersonal() throws Exception {
+        // Cualquiera puede registrarse y obtener un token de cliente
+        assertEquals(403, filtrar("POST", "/api/productos", token(1)).getStatus());
+        // Tokens emitidos antes del claim "rol"
+        assertEquals(403, filtrar("PATCH", "/api/productos/1", token(null)).getStatus());
+
+        MockHttpServletResponse response = filtrar("PUT", "/api/productos/1", token(2));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void lecturasPasanSinToken() throws Exception {
+        assertEquals(200, filtrar("GET", "/api/productos", null).getStatus());
+        assertEquals(200, filtrar("OPTIONS", "/api/productos", null).getStatus());
+    }
+
+    private MockHttpServletResponse filtrar(String metodo, String ruta, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, ruta);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static String token(Integer rol) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("email", "ana@milsabores.cl");
+        if (rol != null) {
+            claims.put("rol", rol);
+        }
+        Date ahora = new Date();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("11111111-1")
+                .setIssuedAt(ahora)
+                .setExpiration(new Date(ahora.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,73 @@
+package cl.milsabores.productservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerificadorTest {
+
+    private static final String SECRETO = "clave-de-prueba-para-jwt-con-al-menos-32-bytes";
+
+    private AtomicLong reloj;
+    private JwtVerificador verificador;
+
+    @BeforeEach
+    void setUp() {
+        reloj = new AtomicLong(1_700_000_000_000L);
+        verificador = new JwtVerificador(SECRETO, 100, reloj::get);
+    }
+
+    @Test
+    void tokenDeAuthServiceEsValidoYQuedaEnCache() {
+        String token = token(SECRETO, "11111111-1", 60_000);
+
+        TokenVerificado verificado = verificador.verificar(token).orElseThrow();
+
+        assertEquals("11111111-1", verificado.rut());
+        assertEquals("ana@milsabores.cl", verificado.email());
+        assertEquals(2, verificado.rol());
+        assertEquals(1, verificador.tamanoCache());
+        assertTrue(verificador.verificar(token).isPresent());
+    }
+
+    @Test
+    void tokenCacheadoDejaDeSerValidoAlExpirar() {
+        String token = token(SECRETO, "11111111-1", 60_000);
+        assertTrue(verificador.verificar(token).isPresent());
+
+        reloj.addAndGet(60_001);
+
+        assertTrue(verificador.verificar(token).isEmpty());
+        assertEquals(0, verificador.tamanoCache());
+    }
+
+    @Test
+    void firmaConOtraClaveOTokenMalformadoNoEsValido() {
+        String ajeno = token("otra-clave-distinta-para-firmar-con-32-bytes!", "11111111-1", 60_000);
+
+        assertTrue(verificador.verificar(ajeno).isEmpty());
+        assertTrue(verificador.verificar("no-es-un-jwt").isEmpty());
+        assertTrue(verificador.verificar(null).isEmpty());
+        assertEquals(0, verificador.tamanoCache());
+    }
+
+    private String token(String secreto, String rut, long duracionMs) {
+        Date emitido = new Date(reloj.get());
+        return Jwts.builder()
+                .setClaims(Map.of("email", "ana@milsabores.cl", "rol", 2))
+                .setSubject(rut)
+                .setIssuedAt(emitido)
+                .setExpiration(new Date(emitido.getTime() + duracionMs))
+                .signWith(Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,66 @@
+package cl.milsabores.productservice.service;
+
+import cl.milsabores.productservice.cache.CatalogoCache;
+import cl.milsabores.productservice.cache.EventosCatalogo;
+import cl.milsabores.productservice.dto.CambioDisponibilidadRequest;
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductoServiceDisponibilidadTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void masDeMilIdsVanEnTramosDentroDeUnaSolaTransaccion() {
+        ProductoRepository repo = mock(ProductoRepository.class);
+        when(repo.findAll()).thenReturn(List.of());
+        when(repo.cambiarDisponibilidad(anyCollection(), eq(false)))
+                .thenAnswer(invocacion -> invocacion.<Collection<Long>>getArgument(0).size());
+        when(repo.findAllById(anyIterable())).thenReturn(List.of());
+        PlatformTransactionManager transacciones = mock(PlatformTransactionManager.class);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CatalogoCache catalogo = new CatalogoCache(repo,
+                new EventosCatalogo(new ObjectMapper(), registry, 16, 16, 1, 4, 1000, 5000), registry);
+        ProductoService service = new ProductoService(repo, catalogo, null, registry,
+                new TransactionTemplate(transacciones), null);
+
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            ids.add(id);
+        }
+        ids.add(7L);
+        ids.add(null);
+
+        int actualizados = service.cambiarDisponibilidad(new CambioDisponibilidadRequest(ids, null, false))
+                .actualizados();
+
+        assertEquals(2_500, actualizados);
+        ArgumentCaptor<Collection<Long>> tramos = ArgumentCaptor.forClass(Collection.class);
+        verify(repo, times(3)).cambiarDisponibilidad(tramos.capture(), eq(false));
+        Set<Long> vistos = new HashSet<>();
+        for (Collection<Long> tramo : tramos.getAllValues()) {
+            assertTrue(tramo.size() <= ProductoService.MAX_IDS_POR_IN);
+            vistos.addAll(tramo);
+        }
+        assertEquals(2_500, vistos.size());
+        verify(repo, times(3)).findAllById(anyIterable());
+        verify(transacciones, times(1)).getTransaction(any());
+        verify(transacciones, times(1)).commit(any());
+    }
+}
@@ -0,0 +1,146 @@
+package cl.milsabores.productservice.service;
+
+import cl.milsabores.productservice.cache.CatalogoCache;
+import cl.milsabores.productservice.cache.EventosCatalogo;
+import cl.milsabores.productservice.dto.PaginaProductos;
+import cl.milsabores.productservice.dto.ResultadoFacetas;
+import cl.milsabores.productservice.model.Producto;
+import cl.milsabores.productservice.repository.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductoServicePaginacionTest {
+
+    private CatalogoCache catalogo;
+    private ProductoService service;
+
+    @BeforeEach
+    void setUp() {
+        List<Producto> productos = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            productos.add(Producto.builder()
+                    .id(id)
+                    .nombre("Producto " + (char) ('k' - id))
+                    // precios repetidos: el id desempata
+                    .precio(BigDecimal.valueOf(1000 * (id % 3)))
+                    .categoria(id % 2 == 0 ? "Tortas" : "Galletas")
+                    .disponible(id != 5)
+                    .build());
+        }
+        ProductoRepository repo = mock(ProductoRepository.class);
+        when(repo.findAll()).thenReturn(productos);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        catalogo = new CatalogoCache(repo, new EventosCatalogo(new ObjectMapper(), registry, 16, 16, 1, 4, 1000, 5000), registry);
+        service = new ProductoService(repo, catalogo, null, registry, null, null);
+        ReflectionTestUtils.setField(service, "tamanoPaginaDefecto", 4);
+        ReflectionTestUtils.setField(service, "tamanoPaginaMaximo", 5);
+        ReflectionTestUtils.setField(service, "rangosPrecio",
+                new BigDecimal[]{BigDecimal.valueOf(1000), BigDecimal.valueOf(2000)});
+    }
+
+    @Test
+    void recorreTodasLasPaginasPorIdSinRepetir() {
+        PaginaProductos primera = service.paginarTodos(null, null, null, null);
+        PaginaProductos segunda = service.paginarTodos(primera.siguienteCursor(), null, null, null);
+        PaginaProductos tercera = service.paginarTodos(segunda.siguienteCursor(), null, null, null);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(primera));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(segunda));
+        assertEquals(List.of(9L, 10L), ids(tercera));
+        assertNull(tercera.siguienteCursor());
+    }
+
+    @Test
+    void ordenPorPrecioDescendenteConEmpates() {
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaProductos pagina = service.paginarTodos(cursor, 3, cursor == null ? "precio" : null,
+                    cursor == null ? "desc" : null);
+            vistos.addAll(ids(pagina));
+            cursor = pagina.siguienteCursor();
+        } while (cursor != null);
+
+        // precio 2000 (ids 8,5,2), 1000 (10,7,4,1), 0 (9,6,3); empates por id descendente
+        assertEquals(List.of(8L, 5L, 2L, 10L, 7L, 4L, 1L, 9L, 6L, 3L), vistos);
+    }
+
+    @Test
+    void cursorSigueValidoSiSeEliminaElUltimoEntregado() {
+        PaginaProductos primera = service.paginarPorCategoria("TORTAS", null, 2, "nombre", null);
+        assertEquals(List.of(10L, 8L), ids(primera));
+
+        catalogo.productoEliminado(8L);
+
+        PaginaProductos segunda = service.paginarPorCategoria("tortas", primera.siguienteCursor(), 2, null, null);
+        assertEquals(List.of(6L, 4L), ids(segunda));
+    }
+
+    @Test
+    void facetasCuentanSinSuPropioFiltroYPaginanPorPrecio() {
+        ResultadoFacetas primera = service.filtrarFacetas(List.of("TORTAS"), true, BigDecimal.valueOf(1000), null,
+                null, 2, "precio", null);
+        ResultadoFacetas segunda = service.filtrarFacetas(List.of("tortas"), true, BigDecimal.valueOf(1000), null,
+                primera.siguienteCursor(), 2, null, null);
+
+        // Tortas disponibles desde $1000: 4 y 10 ($1000), 2 y 8 ($2000)
+        assertEquals(4, primera.total());
+        assertEquals(List.of(4L, 10L), ids(primera.items()));
+        assertEquals(List.of(2L, 8L), ids(segunda.items()));
+        assertNull(segunda.siguienteCursor());
+
+        // Categorías: disponibles desde $1000; precios: tortas disponibles; disponibilidad: tortas desde $1000
+        assertEquals(List.of(new ResultadoFacetas.Categoria("Galletas", 2), new ResultadoFacetas.Categoria("Tortas", 4)),
+                primera.categorias());
+        assertEquals(List.of(1, 2, 2), primera.precios().stream().map(ResultadoFacetas.RangoPrecio::cantidad).toList());
+        assertEquals(new ResultadoFacetas.Disponibilidad(4, 0), primera.disponibilidad());
+    }
+
+    @Test
+    void facetasPorIdDescendenteYCategoriaDesconocida() {
+        ResultadoFacetas primera = service.filtrarFacetas(null, null, null, null, null, 4, "id", "desc");
+        ResultadoFacetas segunda = service.filtrarFacetas(null, null, null, null, primera.siguienteCursor(), 4, null, null);
+
+        assertEquals(List.of(10L, 9L, 8L, 7L), ids(primera.items()));
+        assertEquals(List.of(6L, 5L, 4L, 3L), ids(segunda.items()));
+        assertEquals(new ResultadoFacetas.Disponibilidad(9, 1), primera.disponibilidad());
+
+        ResultadoFacetas ninguna = service.filtrarFacetas(List.of("Panes"), null, null, null, null, null, null, null);
+        assertEquals(0, ninguna.total());
+        assertTrue(ninguna.items().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.filtrarFacetas(null, null,
+                BigDecimal.valueOf(2000), BigDecimal.valueOf(1000), null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.filtrarFacetas(null, null, null, null, null, null, "nombre", null));
+    }
+
+    @Test
+    void rechazaTamanoCursorYOrdenInvalidos() {
+        PaginaProductos primera = service.paginarTodos(null, null, "nombre", null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.paginarTodos(null, 6, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.paginarTodos("no-es-cursor", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.paginarTodos(null, null, "stock", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.paginarTodos(primera.siguienteCursor(), null, "precio", null));
+    }
+
+    private static List<Long> ids(PaginaProductos pagina) {
+        return ids(pagina.items());
+    }
+
+    private static List<Long> ids(List<Producto> productos) {
+        return productos.stream().map(Producto::getId).toList();
+    }
+}